@@ -0,0 +1,103 @@
+import java.util.List;
+import java.util.TreeMap;
+
+import rbtree.benchmarks.BulkLoader;
+import rbtree.benchmarks.IntSet;
+
+// Builds the IntSet adapter for one implementation name, and the
+// BulkLoader for RedBlackTree.
+// Each JMH fork creates only one of them, so the call sites in the
+// benchmark methods see a single receiver class.
+public final class BenchmarkTargets {
+    private BenchmarkTargets() {
+    }
+
+    public static IntSet create(String implementation) {
+        switch (implementation) {
+            case "RedBlackTree": {
+                final RedBlackTree<Integer> tree = new RedBlackTree<>();
+                return new IntSet() {
+                    @Override public boolean insert(int key) { return tree.insert(key); }
+                    @Override public boolean contains(int key) { return tree.search(key) != null; }
+                    @Override public boolean delete(int key) { return tree.delete(key); }
+                };
+            }
+            case "TopDownRedBlackTree": {
+                final TopDownRedBlackTree<Integer> tree = new TopDownRedBlackTree<>();
+                return new IntSet() {
+                    @Override public boolean insert(int key) { return tree.insert(key); }
+                    @Override public boolean contains(int key) { return tree.contains(key); }
+                    @Override public boolean delete(int key) { return tree.delete(key); }
+                };
+            }
+            case "IntRedBlackTree": {
+                final IntRedBlackTree tree = new IntRedBlackTree();
+                return new IntSet() {
+                    @Override public boolean insert(int key) { return tree.insert(key); }
+                    @Override public boolean contains(int key) { return tree.contains(key); }
+                    @Override public boolean delete(int key) { return tree.delete(key); }
+                };
+            }
+            case "IntRedBlackTreeCompact": {
+                final IntRedBlackTree tree = new IntRedBlackTree();
+                return new IntSet() {
+                    @Override public boolean insert(int key) { return tree.insert(key); }
+                    @Override public boolean contains(int key) { return tree.contains(key); }
+                    @Override public boolean delete(int key) { return tree.delete(key); }
+                    @Override public void loaded() { tree.compact(); }
+                };
+            }
+            case "LongRedBlackTree": {
+                final LongRedBlackTree tree = new LongRedBlackTree();
+                return new IntSet() {
+                    @Override public boolean insert(int key) { return tree.insert(key); }
+                    @Override public boolean contains(int key) { return tree.contains(key); }
+                    @Override public boolean delete(int key) { return tree.delete(key); }
+                };
+            }
+            case "RedBlackTreeMap": {
+                final RedBlackTreeMap<Integer, Boolean> map = new RedBlackTreeMap<>();
+                return new IntSet() {
+                    @Override public boolean insert(int key) { return map.put(key, Boolean.TRUE) == null; }
+                    @Override public boolean contains(int key) { return map.containsKey(key); }
+                    @Override public boolean delete(int key) { return map.remove(key) != null; }
+                };
+            }
+            case "TreeMap": {
+                final TreeMap<Integer, Boolean> map = new TreeMap<>();
+                return new IntSet() {
+                    @Override public boolean insert(int key) { return map.put(key, Boolean.TRUE) == null; }
+                    @Override public boolean contains(int key) { return map.containsKey(key); }
+                    @Override public boolean delete(int key) { return map.remove(key) != null; }
+                };
+            }
+            default:
+                throw new IllegalArgumentException("Unknown implementation: " + implementation);
+        }
+    }
+
+    public static BulkLoader bulkLoader() {
+        return new BulkLoader() {
+            @Override
+            public Object insertEach(List<Integer> keys) {
+                RedBlackTree<Integer> tree = new RedBlackTree<>();
+                for (Integer key : keys) {
+                    tree.insert(key);
+                }
+                return tree;
+            }
+
+            @Override
+            public Object insertAll(List<Integer> keys) {
+                RedBlackTree<Integer> tree = new RedBlackTree<>();
+                tree.insertAll(keys);
+                return tree;
+            }
+
+            @Override
+            public Object fromSorted(List<Integer> sortedKeys) {
+                return RedBlackTree.fromSorted(sortedKeys);
+            }
+        };
+    }
+}
\ No newline at end of file
@@ -0,0 +1,272 @@
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TreeMap;
+
+import rbtree.benchmarks.KeyDistribution;
+
+// Throughput and allocation benchmarks for the tree implementations.
+// Usage: java -cp benchmarks/target/benchmarks.jar TreeBenchmark [size ...]
+// (default sizes 1K to 10M)
+//
+// Every (implementation, workload, distribution, size) cell is warmed up,
+// then measured over several iterations; the median is reported together
+// with the bytes allocated per operation, read from the per-thread
+// allocation counter. java.util.TreeMap is included as the baseline.
+// A second table reports the heap retained per key by each implementation,
+// measured as the growth of used heap after full garbage collections
+// (a stand-in for a JOL object-graph walk, which needs an extra dependency).
+//
+// All implementations share one JVM here, so the Target call sites turn
+// megamorphic and earlier runs shape the JIT profile of later ones. Compare
+// implementations with the JMH suite (TreeOperationsBenchmark) instead,
+// which forks a JVM per implementation.
+public class TreeBenchmark {
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASURED_ITERATIONS = 5;
+    private static final int[] DEFAULT_SIZES = {1_000, 10_000, 100_000, 1_000_000, 10_000_000};
+
+    // Keeps results observable so the JIT cannot drop the measured work
+    private static long sink;
+
+    public static void main(String[] args) {
+        int[] sizes = DEFAULT_SIZES;
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                sizes[i] = Integer.parseInt(args[i].replace("_", ""));
+            }
+        }
+
+        System.out.printf("%-14s %-8s %-11s %10s %14s %10s%n",
+                "impl", "op", "keys", "size", "ops/s", "B/op");
+
+        for (int size : sizes) {
+            for (KeyDistribution distribution : KeyDistribution.values()) {
+                int[] keys = distribution.keys(size, new Random(42));
+                for (Implementation implementation : Implementation.values()) {
+                    for (Workload workload : Workload.values()) {
+                        report(implementation, workload, distribution, size, keys);
+                    }
+                }
+            }
+        }
+
+        System.out.printf("%n%-14s %10s %12s%n", "impl", "size", "bytes/key");
+        for (int size : sizes) {
+            int[] keys = KeyDistribution.RANDOM.keys(size, new Random(42));
+            for (Implementation implementation : Implementation.values()) {
+                System.out.printf("%-14s %10d %12.1f%n", implementation.label, size,
+                        retainedBytes(implementation, keys) / (double) size);
+            }
+        }
+
+        System.out.println("(checksum " + sink + ")");
+    }
+
+    // Heap retained by a loaded instance, from used heap before and after
+    private static long retainedBytes(Implementation implementation, int[] keys) {
+        long before = usedHeapAfterGc();
+        Target target = implementation.create();
+        for (int key : keys) {
+            target.insert(key);
+        }
+        target.loaded();
+        long after = usedHeapAfterGc();
+        sink += target.search(keys[0]) ? 1 : 0; // Keeps target reachable until here
+        return after - before;
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+
+    private static void report(Implementation implementation, Workload workload,
+                               KeyDistribution distribution, int size, int[] keys) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            run(implementation, workload, keys);
+        }
+
+        double[] opsPerSecond = new double[MEASURED_ITERATIONS];
+        double[] bytesPerOp = new double[MEASURED_ITERATIONS];
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            Measurement measurement = run(implementation, workload, keys);
+            opsPerSecond[i] = keys.length / (measurement.nanos / 1e9);
+            bytesPerOp[i] = measurement.bytes < 0 ? -1 : (double) measurement.bytes / keys.length;
+        }
+
+        System.out.printf("%-14s %-8s %-11s %10d %14.0f %10.1f%n",
+                implementation.label, workload.name().toLowerCase(), distribution.name().toLowerCase(),
+                size, median(opsPerSecond), median(bytesPerOp));
+    }
+
+    // Runs one iteration; only the workload itself is timed, not the setup
+    private static Measurement run(Implementation implementation, Workload workload, int[] keys) {
+        Target target = implementation.create();
+        if (workload != Workload.INSERT) {
+            for (int key : keys) {
+                target.insert(key);
+            }
+            target.loaded();
+        }
+
+        long bytesBefore = allocatedBytes();
+        long start = System.nanoTime();
+        long hits = 0;
+
+        switch (workload) {
+            case INSERT:
+                for (int key : keys) {
+                    hits += target.insert(key) ? 1 : 0;
+                }
+                break;
+            case SEARCH:
+                for (int key : keys) {
+                    hits += target.search(key) ? 1 : 0;
+                }
+                break;
+            case DELETE:
+                for (int key : keys) {
+                    hits += target.delete(key) ? 1 : 0;
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unknown workload " + workload);
+        }
+
+        long nanos = System.nanoTime() - start;
+        long bytesAfter = allocatedBytes();
+        sink += hits;
+        return new Measurement(nanos, bytesBefore < 0 ? -1 : bytesAfter - bytesBefore);
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    // Bytes allocated so far by the current thread, or -1 if the JVM cannot tell
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private enum Workload {
+        INSERT,
+        SEARCH,
+        DELETE
+    }
+
+    private enum Implementation {
+        RED_BLACK("RedBlackTree") {
+            Target create() {
+                final RedBlackTree<Integer> tree = new RedBlackTree<>();
+                return new Target() {
+                    public boolean insert(int key) { return tree.insert(key); }
+                    public boolean search(int key) { return tree.search(key) != null; }
+                    public boolean delete(int key) { return tree.delete(key); }
+                };
+            }
+        },
+        TOP_DOWN_RED_BLACK("TopDownRB") {
+            Target create() {
+                final TopDownRedBlackTree<Integer> tree = new TopDownRedBlackTree<>();
+                return new Target() {
+                    public boolean insert(int key) { return tree.insert(key); }
+                    public boolean search(int key) { return tree.contains(key); }
+                    public boolean delete(int key) { return tree.delete(key); }
+                };
+            }
+        },
+        INT_RED_BLACK("IntRedBlack") {
+            Target create() {
+                final IntRedBlackTree tree = new IntRedBlackTree();
+                return new Target() {
+                    public boolean insert(int key) { return tree.insert(key); }
+                    public boolean search(int key) { return tree.contains(key); }
+                    public boolean delete(int key) { return tree.delete(key); }
+                };
+            }
+        },
+        INT_RED_BLACK_COMPACT("IntRBCompact") {
+            Target create() {
+                final IntRedBlackTree tree = new IntRedBlackTree();
+                return new Target() {
+                    public boolean insert(int key) { return tree.insert(key); }
+                    public boolean search(int key) { return tree.contains(key); }
+                    public boolean delete(int key) { return tree.delete(key); }
+                    public void loaded() { tree.compact(); }
+                };
+            }
+        },
+        LONG_RED_BLACK("LongRedBlack") {
+            Target create() {
+                final LongRedBlackTree tree = new LongRedBlackTree();
+                return new Target() {
+                    public boolean insert(int key) { return tree.insert(key); }
+                    public boolean search(int key) { return tree.contains(key); }
+                    public boolean delete(int key) { return tree.delete(key); }
+                };
+            }
+        },
+        RED_BLACK_MAP("RedBlackMap") {
+            Target create() {
+                final RedBlackTreeMap<Integer, Boolean> map = new RedBlackTreeMap<>();
+                return new Target() {
+                    public boolean insert(int key) { return map.put(key, Boolean.TRUE) == null; }
+                    public boolean search(int key) { return map.containsKey(key); }
+                    public boolean delete(int key) { return map.remove(key) != null; }
+                };
+            }
+        },
+        TREE_MAP("TreeMap") {
+            Target create() {
+                final TreeMap<Integer, Boolean> map = new TreeMap<>();
+                return new Target() {
+                    public boolean insert(int key) { return map.put(key, Boolean.TRUE) == null; }
+                    public boolean search(int key) { return map.containsKey(key); }
+                    public boolean delete(int key) { return map.remove(key) != null; }
+                };
+            }
+        };
+
+        final String label;
+
+        Implementation(String label) {
+            this.label = label;
+        }
+
+        abstract Target create();
+    }
+
+    private interface Target {
+        boolean insert(int key);
+        boolean search(int key);
+        boolean delete(int key);
+
+        // Called once the keys are in, outside the timed section
+        default void loaded() {
+        }
+    }
+
+    private static final class Measurement {
+        final long nanos;
+        final long bytes;
+
+        Measurement(long nanos, long bytes) {
+            this.nanos = nanos;
+            this.bytes = bytes;
+        }
+    }
+
+}
\ No newline at end of file
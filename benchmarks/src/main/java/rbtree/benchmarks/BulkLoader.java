@@ -0,0 +1,26 @@
+package rbtree.benchmarks;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+// Bulk construction paths of RedBlackTree, reached through BenchmarkTargets
+// for the same reason as IntSet. Each method returns the tree it built.
+public interface BulkLoader {
+    // One insert per key, the baseline for the two below
+    Object insertEach(List<Integer> keys);
+
+    // insertAll: one sorted batch, each key located from the previous one
+    Object insertAll(List<Integer> keys);
+
+    // fromSorted: O(n) construction, no descents or rebalancing
+    Object fromSorted(List<Integer> sortedKeys);
+
+    static BulkLoader create() {
+        try {
+            Method factory = Class.forName("BenchmarkTargets").getMethod("bulkLoader");
+            return (BulkLoader) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create the bulk loader", e);
+        }
+    }
+}
\ No newline at end of file
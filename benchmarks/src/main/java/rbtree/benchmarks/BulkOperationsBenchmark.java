@@ -0,0 +1,70 @@
+package rbtree.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Building a RedBlackTree from size keys: one insert per key, one
+// insertAll batch, and fromSorted on the same keys sorted up front.
+// The score is the time to build the whole tree; -prof gc reports the
+// bytes allocated per build as gc.alloc.rate.norm.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(2)
+public class BulkOperationsBenchmark {
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"SEQUENTIAL", "RANDOM", "ZIPFIAN"})
+    public KeyDistribution distribution;
+
+    private List<Integer> keys;
+    private List<Integer> sortedKeys;
+    private BulkLoader loader;
+
+    // Keys are boxed once here, so the builds do not measure boxing
+    @Setup(Level.Trial)
+    public void createKeys() {
+        int[] raw = distribution.keys(size, new Random(42));
+        keys = new ArrayList<>(raw.length);
+        for (int key : raw) {
+            keys.add(key);
+        }
+        sortedKeys = new ArrayList<>(keys);
+        Collections.sort(sortedKeys);
+        loader = BulkLoader.create();
+    }
+
+    @Benchmark
+    public Object insertEach() {
+        return loader.insertEach(keys);
+    }
+
+    @Benchmark
+    public Object insertAll() {
+        return loader.insertAll(keys);
+    }
+
+    @Benchmark
+    public Object fromSorted() {
+        return loader.fromSorted(sortedKeys);
+    }
+}
\ No newline at end of file
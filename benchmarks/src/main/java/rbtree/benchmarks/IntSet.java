@@ -0,0 +1,26 @@
+package rbtree.benchmarks;
+
+import java.lang.reflect.Method;
+
+// The operations every benchmarked implementation is driven through.
+// The trees live in the default package, which named packages cannot
+// import, so adapters are built by BenchmarkTargets (default package)
+// and looked up here by reflection, once per trial.
+public interface IntSet {
+    boolean insert(int key);
+    boolean contains(int key);
+    boolean delete(int key);
+
+    // Called once the keys are in, outside the measured section
+    default void loaded() {
+    }
+
+    static IntSet create(String implementation) {
+        try {
+            Method factory = Class.forName("BenchmarkTargets").getMethod("create", String.class);
+            return (IntSet) factory.invoke(null, implementation);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create " + implementation, e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,79 @@
+package rbtree.benchmarks;
+
+import java.util.Random;
+
+// Key streams the benchmarks run on. Keys lie in [0, size).
+public enum KeyDistribution {
+    SEQUENTIAL,
+    RANDOM,   // A shuffled permutation, every key once
+    ZIPFIAN;  // Skewed with repeats: rank 0 is the hottest key
+
+    public int[] keys(int size, Random random) {
+        int[] keys = new int[size];
+        switch (this) {
+            case SEQUENTIAL:
+                for (int i = 0; i < size; i++) {
+                    keys[i] = i;
+                }
+                break;
+            case RANDOM:
+                for (int i = 0; i < size; i++) {
+                    keys[i] = i;
+                }
+                for (int i = size - 1; i > 0; i--) {
+                    int j = random.nextInt(i + 1);
+                    int swap = keys[i];
+                    keys[i] = keys[j];
+                    keys[j] = swap;
+                }
+                break;
+            case ZIPFIAN:
+                Zipfian zipfian = new Zipfian(size, 0.99);
+                for (int i = 0; i < size; i++) {
+                    keys[i] = zipfian.next(random);
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unknown distribution " + this);
+        }
+        return keys;
+    }
+
+    // Zipfian ranks in [0, n) with skew theta (Gray et al., as used by YCSB).
+    // Rank 0 is the hottest key.
+    private static final class Zipfian {
+        private final int n;
+        private final double theta;
+        private final double alpha;
+        private final double zetaN;
+        private final double eta;
+
+        Zipfian(int n, double theta) {
+            this.n = n;
+            this.theta = theta;
+            this.alpha = 1.0 / (1.0 - theta);
+            this.zetaN = zeta(n, theta);
+            this.eta = (1 - Math.pow(2.0 / n, 1 - theta)) / (1 - zeta(2, theta) / zetaN);
+        }
+
+        int next(Random random) {
+            double u = random.nextDouble();
+            double uz = u * zetaN;
+            if (uz < 1.0) {
+                return 0;
+            }
+            if (uz < 1.0 + Math.pow(0.5, theta)) {
+                return 1;
+            }
+            return (int) (n * Math.pow(eta * u - eta + 1, alpha)) % n;
+        }
+
+        private static double zeta(int n, double theta) {
+            double sum = 0;
+            for (int i = 1; i <= n; i++) {
+                sum += 1 / Math.pow(i, theta);
+            }
+            return sum;
+        }
+    }
+}
\ No newline at end of file
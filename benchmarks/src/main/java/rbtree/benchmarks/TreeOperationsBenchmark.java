@@ -0,0 +1,106 @@
+package rbtree.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.Blackhole;
+
+// JMH version of the insert/search/delete comparison in TreeBenchmark,
+// with java.util.TreeMap as the baseline.
+// Build with mvn package, then run: java -jar benchmarks/target/benchmarks.jar
+//
+// JMH starts fresh forks for every parameter combination, so each JVM only
+// ever loads one implementation: the IntSet call sites stay monomorphic and
+// the JIT profile is not shaped by whichever tree happened to run first.
+// Every result goes into a Blackhole.
+//
+// One invocation works through all size keys, so the score is the time of
+// a whole pass; divide by size for the cost per key. Add -prof gc for
+// gc.alloc.rate.norm, the bytes allocated per pass (again divide by size).
+// The 10M cells need a few GB of heap: -jvmArgsAppend -Xmx4g.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(2)
+public class TreeOperationsBenchmark {
+    @Param({"RedBlackTree", "TopDownRedBlackTree", "IntRedBlackTree", "IntRedBlackTreeCompact",
+            "LongRedBlackTree", "RedBlackTreeMap", "TreeMap"})
+    public String implementation;
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"SEQUENTIAL", "RANDOM", "ZIPFIAN"})
+    public KeyDistribution distribution;
+
+    private int[] keys;
+    private boolean mutates; // insert and delete need a fresh instance per invocation
+    private IntSet loaded;
+    private IntSet scratch;
+
+    @Setup(Level.Trial)
+    public void createKeys(BenchmarkParams params) {
+        keys = distribution.keys(size, new Random(42));
+        mutates = !params.getBenchmark().endsWith("search");
+        if (!mutates) {
+            loaded = fill(IntSet.create(implementation));
+        }
+    }
+
+    // Building the instance for insert (empty) or delete (full) is not timed
+    @Setup(Level.Invocation)
+    public void createScratch(BenchmarkParams params) {
+        if (mutates) {
+            scratch = null; // Let the previous one go before building the next
+            scratch = IntSet.create(implementation);
+            if (params.getBenchmark().endsWith("delete")) {
+                fill(scratch);
+            }
+        }
+    }
+
+    @Benchmark
+    public void insert(Blackhole blackhole) {
+        for (int key : keys) {
+            blackhole.consume(scratch.insert(key));
+        }
+    }
+
+    @Benchmark
+    public void search(Blackhole blackhole) {
+        for (int key : keys) {
+            blackhole.consume(loaded.contains(key));
+        }
+    }
+
+    @Benchmark
+    public void delete(Blackhole blackhole) {
+        for (int key : keys) {
+            blackhole.consume(scratch.delete(key));
+        }
+    }
+
+    // Helper method to insert all keys and let the implementation settle
+    private IntSet fill(IntSet set) {
+        for (int key : keys) {
+            set.insert(key);
+        }
+        set.loaded();
+        return set;
+    }
+}
\ No newline at end of file
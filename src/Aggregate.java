@@ -0,0 +1,37 @@
+import java.util.function.ToLongFunction;
+
+// Monoid summarising the keys of a subtree. A RedBlackTree built with an
+// aggregate keeps one value per node, combined from the node's own key and
+// its children's values, so range queries need not visit every key.
+// combine must be associative and identity() must be its neutral element;
+// combine(left, right) always receives the lower keys on the left.
+public interface Aggregate <T, A> {
+    A identity();
+
+    // Value for a subtree holding only this key
+    A of(T key);
+
+    A combine(A left, A right);
+
+    // Number of keys. Stateless, so every call returns the same instance.
+    @SuppressWarnings("unchecked")
+    static <T> Aggregate<T, Long> count() {
+        return (Aggregate<T, Long>) (Aggregate<?, Long>) LongAggregate.COUNT;
+    }
+
+    // Sum of the values in the range. This and min/max compare equal when
+    // given the same function object, such as one non-capturing lambda
+    static <T> Aggregate<T, Long> sum(ToLongFunction<? super T> value) {
+        return new LongAggregate<>(LongAggregate.Kind.SUM, value);
+    }
+
+    // Smallest value in the range, Long.MAX_VALUE if the range is empty
+    static <T> Aggregate<T, Long> min(ToLongFunction<? super T> value) {
+        return new LongAggregate<>(LongAggregate.Kind.MIN, value);
+    }
+
+    // Largest value in the range, Long.MIN_VALUE if the range is empty
+    static <T> Aggregate<T, Long> max(ToLongFunction<? super T> value) {
+        return new LongAggregate<>(LongAggregate.Kind.MAX, value);
+    }
+}
\ No newline at end of file
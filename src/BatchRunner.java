@@ -0,0 +1,327 @@
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+// Non-interactive driver: streams commands into a RedBlackTree<Integer>
+// and writes one result line per command.
+// Usage: java Main --batch [input|-] [output|-] [--quiet]
+//
+// Commands, one per line ('#' starts a comment):
+//   insert <key>   (also: i, add)      -> true if the key was added
+//   delete <key>   (also: d, remove)   -> true if the key was removed
+//   search <key>   (also: s, contains) -> true if the key is present
+//   stats                              -> size, height and red node count
+// A malformed line yields "error <reason>" and the run carries on.
+//
+// Input is read through a channel into a reusable buffer and parsed byte by
+// byte, so no String is created per line; results go through a large
+// buffered writer. Each tree operation is timed on its own and a latency
+// summary per command goes to stderr when the input ends.
+public final class BatchRunner {
+    private static final int IO_BUFFER_BYTES = 64 * 1024;
+    private static final int MAX_WORD = 16;
+
+    private static final int CMD_INSERT = 0;
+    private static final int CMD_DELETE = 1;
+    private static final int CMD_SEARCH = 2;
+    private static final int CMD_STATS = 3;
+    private static final String[] COMMAND_NAMES = {"insert", "delete", "search", "stats"};
+
+    private final RedBlackTree<Integer> tree;
+    private final boolean quiet;
+    private final OperationTimer[] timers = new OperationTimer[COMMAND_NAMES.length];
+    private long errors;
+
+    // Parser state for the line being read
+    private final byte[] word = new byte[MAX_WORD];
+    private int wordLength;
+    private long value;
+    private boolean negative;
+    private int digits;
+    private boolean inValue;
+    private boolean inComment;
+    private String lineError;
+
+    public BatchRunner(RedBlackTree<Integer> tree, boolean quiet) {
+        this.tree = tree;
+        this.quiet = quiet;
+        for (int i = 0; i < timers.length; i++) {
+            timers[i] = new OperationTimer();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        String input = "-";
+        String output = "-";
+        boolean quiet = false;
+        int positional = 0;
+        for (String arg : args) {
+            if (arg.equals("--quiet")) {
+                quiet = true;
+            } else if (positional == 0) {
+                input = arg;
+                positional++;
+            } else if (positional == 1) {
+                output = arg;
+                positional++;
+            } else {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+        }
+
+        BatchRunner runner = new BatchRunner(new RedBlackTree<Integer>(), quiet);
+        long start = System.nanoTime();
+        long commands;
+        // System.in and System.out belong to the JVM: they are read and
+        // flushed here but only files opened here get closed
+        boolean standardInput = input.equals("-");
+        boolean standardOutput = output.equals("-");
+        ReadableByteChannel in = standardInput
+                ? Channels.newChannel(System.in)
+                : FileChannel.open(Paths.get(input), StandardOpenOption.READ);
+        try {
+            OutputStream out = standardOutput ? System.out : new FileOutputStream(output);
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.US_ASCII), IO_BUFFER_BYTES);
+            try {
+                commands = runner.run(in, writer);
+            } finally {
+                if (standardOutput) {
+                    writer.flush();
+                } else {
+                    writer.close();
+                }
+            }
+        } finally {
+            if (!standardInput) {
+                in.close();
+            }
+        }
+        runner.printReport(System.err, commands, System.nanoTime() - start);
+    }
+
+    // Executes every command from in, writing results to out; returns the
+    // number of commands executed. out is flushed but not closed.
+    public long run(ReadableByteChannel in, Writer out) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES);
+        long commands = 0;
+        resetLine();
+
+        while (in.read(buffer) >= 0) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                byte b = buffer.get();
+                if (b == '\n') {
+                    commands += endLine(out);
+                } else {
+                    accept(b);
+                }
+            }
+            buffer.clear();
+        }
+        commands += endLine(out); // Last line may lack a newline
+
+        out.flush();
+        return commands;
+    }
+
+    // Per-command latency table plus overall throughput
+    public void printReport(PrintStream report, long commands, long elapsedNanos) {
+        report.printf("%-8s %12s %12s %10s %10s %10s %12s%n",
+                "command", "count", "total ms", "mean ns", "p50 ns", "p99 ns", "max ns");
+        for (int i = 0; i < timers.length; i++) {
+            OperationTimer timer = timers[i];
+            if (timer.count == 0) {
+                continue;
+            }
+            report.printf("%-8s %12d %12.1f %10.0f %10d %10d %12d%n", COMMAND_NAMES[i], timer.count,
+                    timer.totalNanos / 1e6, (double) timer.totalNanos / timer.count,
+                    timer.percentile(0.50), timer.percentile(0.99), timer.maxNanos);
+        }
+        double seconds = elapsedNanos / 1e9;
+        report.printf("%d commands, %d errors in %.3f s (%.0f commands/s including parsing and output)%n",
+                commands, errors, seconds, seconds > 0 ? commands / seconds : 0);
+    }
+
+    // Helper method to feed one byte of the current line to the parser
+    private void accept(byte b) {
+        if (inComment || lineError != null || b == '\r') {
+            return;
+        }
+        if (b == '#') {
+            inComment = true;
+        } else if (b == ' ' || b == '\t') {
+            if (wordLength > 0 && !inValue && digits == 0) {
+                inValue = true; // Word done, the argument may follow
+            } else if (digits > 0) {
+                inValue = false; // Trailing blanks after the argument
+            }
+        } else if (!inValue && digits == 0) {
+            if (wordLength == MAX_WORD) {
+                lineError = "unknown command";
+            } else {
+                word[wordLength++] = (byte) Character.toLowerCase((char) b);
+            }
+        } else if (inValue && b == '-' && digits == 0 && !negative) {
+            negative = true;
+        } else if (inValue && b >= '0' && b <= '9') {
+            value = value * 10 + (b - '0');
+            digits++;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                lineError = "key out of int range";
+            }
+        } else {
+            lineError = "unexpected character '" + (char) b + "'";
+        }
+    }
+
+    // Helper method to run the command on the line just read; returns 1 if a command ran
+    private int endLine(Writer out) throws IOException {
+        try {
+            if (wordLength == 0 && lineError == null) {
+                return 0; // Blank or comment-only line
+            }
+            if (lineError != null) {
+                return error(out, lineError);
+            }
+
+            int command = command();
+            if (command < 0) {
+                return error(out, "unknown command");
+            }
+            if (command == CMD_STATS) {
+                if (digits > 0 || negative) {
+                    return error(out, "stats takes no argument");
+                }
+                stats(out);
+                return 1;
+            }
+            if (digits == 0) {
+                return error(out, COMMAND_NAMES[command] + " needs a key");
+            }
+            long key = negative ? -value : value;
+            if (key > Integer.MAX_VALUE) {
+                return error(out, "key out of int range");
+            }
+
+            boolean result = execute(command, (int) key);
+            if (!quiet) {
+                out.write(result ? "true\n" : "false\n");
+            }
+            return 1;
+        } finally {
+            resetLine();
+        }
+    }
+
+    // Helper method to time a single tree operation
+    private boolean execute(int command, int key) {
+        long start = System.nanoTime();
+        boolean result;
+        switch (command) {
+            case CMD_INSERT:
+                result = tree.insert(key);
+                break;
+            case CMD_DELETE:
+                result = tree.delete(key);
+                break;
+            default:
+                result = tree.search(key) != null;
+        }
+        timers[command].record(System.nanoTime() - start);
+        return result;
+    }
+
+    private void stats(Writer out) throws IOException {
+        long start = System.nanoTime();
+        int size = tree.size();
+        int height = tree.height();
+        int redNodes = tree.reduce(0, node -> node.color == Color.RED ? 1 : 0, Integer::sum);
+        timers[CMD_STATS].record(System.nanoTime() - start);
+        out.write("size=" + size + " height=" + height + " red=" + redNodes + "\n");
+    }
+
+    private int error(Writer out, String reason) throws IOException {
+        errors++;
+        out.write("error " + reason + "\n");
+        return 0;
+    }
+
+    // Helper method to match the word read against the command names and aliases
+    private int command() {
+        if (wordIs("insert") || wordIs("i") || wordIs("add")) {
+            return CMD_INSERT;
+        }
+        if (wordIs("delete") || wordIs("d") || wordIs("remove")) {
+            return CMD_DELETE;
+        }
+        if (wordIs("search") || wordIs("s") || wordIs("contains")) {
+            return CMD_SEARCH;
+        }
+        if (wordIs("stats")) {
+            return CMD_STATS;
+        }
+        return -1;
+    }
+
+    private boolean wordIs(String name) {
+        if (name.length() != wordLength) {
+            return false;
+        }
+        for (int i = 0; i < wordLength; i++) {
+            if (word[i] != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void resetLine() {
+        wordLength = 0;
+        value = 0;
+        negative = false;
+        digits = 0;
+        inValue = false;
+        inComment = false;
+        lineError = null;
+    }
+
+    // Latency counters for one command; the histogram has one bucket per
+    // power of two nanoseconds, so percentiles are upper bounds within 2x
+    private static final class OperationTimer {
+        private final long[] buckets = new long[64];
+        long count;
+        long totalNanos;
+        long maxNanos;
+
+        void record(long nanos) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+            buckets[64 - Long.numberOfLeadingZeros(nanos)]++;
+        }
+
+        long percentile(double fraction) {
+            long rank = (long) Math.ceil(fraction * count);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank) {
+                    return i == 0 ? 0 : Math.min((1L << i) - 1, maxNanos);
+                }
+            }
+            return maxNanos;
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,177 @@
+import java.util.concurrent.locks.StampedLock;
+
+// Thread-safe Red-Black Tree for point operations.
+// Keys are spread by hash over independent stripes, each a RedBlackTree
+// guarded by its own StampedLock, so writers to different stripes never
+// contend. Readers take no lock at all: they descend optimistically and
+// validate the stripe's stamp afterwards, retrying only if a writer
+// changed that stripe in the meantime.
+//
+// Because a key's stripe depends on its hash, neighbouring keys land in
+// different stripes and no stripe holds a contiguous range. Ordered queries
+// (first/last, floor/ceiling, ranges, sorted iteration) are therefore not
+// offered; use a single RedBlackTree behind one lock when those are needed.
+public class ConcurrentRedBlackTree <T extends Comparable<T>> {
+    private static final int OPTIMISTIC_ATTEMPTS = 3;
+    // A valid tree of up to 2^31 keys is at most 62 levels deep; a longer
+    // walk means a writer is mid-rotation and the read will fail validation
+    private static final int MAX_DESCENT = 128;
+
+    private final RedBlackTree<T>[] stripes;
+    private final StampedLock[] locks;
+    private final int mask;
+
+    public ConcurrentRedBlackTree() {
+        this(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    public ConcurrentRedBlackTree(int stripeCount) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("Stripe count must be positive: " + stripeCount);
+        }
+        int count = 1;
+        while (count < stripeCount) {
+            count <<= 1; // Round up to a power of two so the hash can be masked
+        }
+
+        this.stripes = newStripes(count);
+        this.locks = new StampedLock[count];
+        this.mask = count - 1;
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new RedBlackTree<>();
+            locks[i] = new StampedLock();
+        }
+    }
+
+    public boolean insert(T data) {
+        int stripe = stripeOf(data);
+        StampedLock lock = locks[stripe];
+        long stamp = lock.writeLock();
+        try {
+            return stripes[stripe].insert(data);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public boolean delete(T data) {
+        int stripe = stripeOf(data);
+        StampedLock lock = locks[stripe];
+        long stamp = lock.writeLock();
+        try {
+            return stripes[stripe].delete(data);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public boolean contains(T data) {
+        int stripe = stripeOf(data);
+        StampedLock lock = locks[stripe];
+        RedBlackTree<T> tree = stripes[stripe];
+
+        for (int attempt = 0; attempt < OPTIMISTIC_ATTEMPTS; attempt++) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp == 0) {
+                continue; // A writer holds the stripe right now
+            }
+            int found;
+            try {
+                found = optimisticSearch(tree, data);
+            } catch (RuntimeException e) {
+                break; // compareTo saw a half-written node; retry under the read lock
+            }
+            if (found >= 0 && lock.validate(stamp)) {
+                return found == 1;
+            }
+        }
+
+        // Too much write traffic on this stripe, or a torn read: fall back to a shared lock
+        long stamp = lock.readLock();
+        try {
+            return tree.search(data) != null;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Sum of the stripe sizes; each stripe is read consistently, the total
+    // is not an atomic snapshot while writers are active
+    public int size() {
+        int total = 0;
+        for (int i = 0; i < stripes.length; i++) {
+            StampedLock lock = locks[i];
+            long stamp = lock.tryOptimisticRead();
+            int stripeSize = stripes[i].size();
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    stripeSize = stripes[i].size();
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            total += stripeSize;
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    // Checks every stripe's red-black properties, each under its read lock
+    public boolean isValid() {
+        for (int i = 0; i < stripes.length; i++) {
+            StampedLock lock = locks[i];
+            long stamp = lock.readLock();
+            try {
+                if (!stripes[i].isValid()) {
+                    return false;
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return true;
+    }
+
+    // Helper method to descend without a lock.
+    // Returns 1 if found, 0 if not found, -1 if the walk saw a torn state;
+    // the caller must still validate the stamp before trusting 0 or 1.
+    private int optimisticSearch(RedBlackTree<T> tree, T data) {
+        Node<T> current = tree.root;
+        int steps = 0;
+
+        while (current != null) {
+            T currentData = current.data;
+            if (currentData == null || ++steps > MAX_DESCENT) {
+                return -1; // Node not fully published yet, or a cycle mid-rotation
+            }
+
+            int comparison = data.compareTo(currentData);
+            if (comparison < 0) {
+                current = current.left;
+            } else if (comparison > 0) {
+                current = current.right;
+            } else {
+                return 1;
+            }
+        }
+
+        return 0;
+    }
+
+    // Helper method to create the stripe array; generic arrays need the cast
+    @SuppressWarnings("unchecked")
+    private static <T extends Comparable<T>> RedBlackTree<T>[] newStripes(int count) {
+        return (RedBlackTree<T>[]) new RedBlackTree<?>[count];
+    }
+
+    // Helper method to pick the stripe owning a key
+    private int stripeOf(T data) {
+        int h = data.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+}
\ No newline at end of file
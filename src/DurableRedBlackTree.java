@@ -0,0 +1,302 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// RedBlackTree<Integer> whose state survives restarts.
+// Every successful insert/delete is appended to a write-ahead log before the
+// tree changes; if the record cannot be logged, the call throws and the tree
+// is left as it was. Records are group-committed: they collect in a buffer
+// and reach the disk with one write + fsync once enough records are pending
+// or the sync interval has passed, checked on every append and by a
+// background flusher, so an idle writer's last records are synced too.
+// A checkpoint writes all keys in ascending order and truncates the log, so
+// recovery is one linear-time fromSorted() build plus a replay of the log
+// tail only. All methods are synchronized.
+//
+// Files in the directory:
+//   tree.ckpt  keys ascending, in the MappedSnapshotTree layout
+//   tree.wal   5-byte records: op (1 = insert, 2 = delete), key
+public class DurableRedBlackTree implements Closeable {
+    private static final String CHECKPOINT_FILE = "tree.ckpt";
+    private static final String WAL_FILE = "tree.wal";
+    private static final byte OP_INSERT = 1;
+    private static final byte OP_DELETE = 2;
+    private static final int RECORD_BYTES = 5;
+    private static final int IO_BUFFER_BYTES = 64 * 1024;
+
+    private final Path directory;
+    private final Path checkpointPath;
+    private final Path walPath;
+    private final FileChannel wal;
+    private final ByteBuffer pending;
+    private final long syncIntervalNanos;
+    private final long checkpointWalBytes;
+
+    private final RedBlackTree<Integer> tree;
+    private final ScheduledExecutorService flusher; // null when every record is synced at once
+    private long lastSyncNanos;
+    private long walBytes;     // Log length including buffered records
+    private long durableBytes; // Log length known to be on disk
+    private IOException failure; // Set once the log could not be restored after a failed write
+
+    public DurableRedBlackTree(Path directory) throws IOException {
+        this(directory, 1024, 10, 64L * 1024 * 1024);
+    }
+
+    // groupCommitRecords: records buffered before a forced write
+    // syncIntervalMillis: age at which buffered records are synced, by the
+    //   next append or at the latest by the flusher about one interval later
+    //   (0 = sync every record)
+    // checkpointWalBytes: log size that triggers an automatic checkpoint (0 = never)
+    public DurableRedBlackTree(Path directory, int groupCommitRecords, long syncIntervalMillis,
+                               long checkpointWalBytes) throws IOException {
+        if (groupCommitRecords < 1) {
+            throw new IllegalArgumentException("Group commit size must be positive: " + groupCommitRecords);
+        }
+        Files.createDirectories(directory);
+        this.directory = directory;
+        this.checkpointPath = directory.resolve(CHECKPOINT_FILE);
+        this.walPath = directory.resolve(WAL_FILE);
+        this.pending = ByteBuffer.allocate(groupCommitRecords * RECORD_BYTES);
+        this.syncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(syncIntervalMillis);
+        this.checkpointWalBytes = checkpointWalBytes;
+
+        this.tree = loadCheckpoint();
+        this.wal = FileChannel.open(walPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        syncDirectory(); // A freshly created log must not vanish with the directory entry
+        this.walBytes = replayWal();
+        this.durableBytes = walBytes;
+        this.wal.position(walBytes);
+        this.lastSyncNanos = System.nanoTime();
+
+        if (syncIntervalMillis > 0) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "durable-tree-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flushIfDue, syncIntervalMillis, syncIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    public synchronized boolean insert(int value) throws IOException {
+        Node<Integer> found = tree.findOrParent(value);
+        if (found != null && found.data == value) {
+            return false; // Duplicate, nothing to log
+        }
+        log(OP_INSERT, value);
+        tree.insertBelowParent(found, value);
+        checkpointIfDue();
+        return true;
+    }
+
+    public synchronized boolean delete(int value) throws IOException {
+        Node<Integer> found = tree.search(value);
+        if (found == null) {
+            return false; // Not found, nothing to log
+        }
+        log(OP_DELETE, value);
+        tree.deleteNode(found);
+        checkpointIfDue();
+        return true;
+    }
+
+    public synchronized boolean contains(int value) {
+        return tree.search(value) != null;
+    }
+
+    public synchronized int size() {
+        return tree.size();
+    }
+
+    // Forces every buffered record to disk. If that fails, the log is cut
+    // back to what was on disk before and the records stay buffered, so a
+    // later sync retries them.
+    public synchronized void sync() throws IOException {
+        checkUsable();
+        if (pending.position() > 0) {
+            pending.flip();
+            try {
+                while (pending.hasRemaining()) {
+                    wal.write(pending);
+                }
+                wal.force(false);
+            } catch (IOException e) {
+                restore(e);
+                throw e;
+            }
+            durableBytes += pending.limit();
+            pending.clear();
+        }
+        lastSyncNanos = System.nanoTime();
+    }
+
+    // Writes all keys to a fresh checkpoint and empties the log. The new file
+    // replaces the old one atomically, and the directory is synced before the
+    // log is truncated, so a crash at any point leaves either the old
+    // checkpoint plus the full log or the new checkpoint; replaying log
+    // records over a checkpoint that already contains them is harmless.
+    public synchronized void checkpoint() throws IOException {
+        sync();
+
+        Path temporary = checkpointPath.resolveSibling(CHECKPOINT_FILE + ".tmp");
+        MappedSnapshotTree.write(tree, temporary);
+        Files.move(temporary, checkpointPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory(); // The rename only lasts once the directory itself is on disk
+
+        wal.truncate(0);
+        wal.position(0);
+        wal.force(true);
+        walBytes = 0;
+        durableBytes = 0;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        try {
+            if (wal.isOpen()) {
+                sync();
+            }
+        } finally {
+            wal.close();
+        }
+    }
+
+    // Helper method to buffer one log record ahead of its change, syncing
+    // when the group is full or old enough. If the sync fails the record is
+    // taken back out, so the caller can throw without touching the tree.
+    private void log(byte op, int value) throws IOException {
+        checkUsable();
+        int mark = pending.position();
+        pending.put(op);
+        pending.putInt(value);
+        walBytes += RECORD_BYTES;
+
+        if (!pending.hasRemaining() || System.nanoTime() - lastSyncNanos >= syncIntervalNanos) {
+            try {
+                sync();
+            } catch (IOException e) {
+                pending.position(mark);
+                walBytes -= RECORD_BYTES;
+                throw e;
+            }
+        }
+    }
+
+    // Helper method to checkpoint once the log is large enough. The change
+    // that triggered it is already logged and applied; an IOException here
+    // only means the checkpoint failed, and the old one plus the log still
+    // hold everything.
+    private void checkpointIfDue() throws IOException {
+        if (checkpointWalBytes > 0 && walBytes >= checkpointWalBytes) {
+            checkpoint();
+        }
+    }
+
+    // Runs on the flusher thread: syncs records that have waited a full
+    // interval without another append to sync them
+    private synchronized void flushIfDue() {
+        if (!wal.isOpen() || failure != null || pending.position() == 0
+                || System.nanoTime() - lastSyncNanos < syncIntervalNanos) {
+            return;
+        }
+        try {
+            sync();
+        } catch (IOException e) {
+            // The records stay buffered; the next write or sync retries and reports the error
+        }
+    }
+
+    // Helper method to undo a failed write: every record goes back into the
+    // buffer and the log is cut back to its last synced length. If even
+    // that fails, the log's contents are unknown and no more writes are taken.
+    private void restore(IOException cause) {
+        pending.position(pending.limit());
+        pending.limit(pending.capacity());
+        try {
+            wal.truncate(durableBytes);
+            wal.position(durableBytes);
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+            failure = cause;
+        }
+    }
+
+    private void checkUsable() throws IOException {
+        if (failure != null) {
+            throw new IOException("Write-ahead log left in an unknown state; reopen the tree to recover", failure);
+        }
+    }
+
+    // Helper method to force the directory's entries (file creations and renames) to disk
+    private void syncDirectory() throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    private RedBlackTree<Integer> loadCheckpoint() throws IOException {
+        if (!Files.exists(checkpointPath)) {
+            return new RedBlackTree<>();
+        }
+
+        MappedSnapshotTree checkpoint = MappedSnapshotTree.open(checkpointPath);
+        List<Integer> keys = new ArrayList<>(checkpoint.size());
+        for (int i = 0; i < checkpoint.size(); i++) {
+            keys.add(checkpoint.keyAt(i));
+        }
+        return RedBlackTree.fromSorted(keys);
+    }
+
+    // Applies the log to the tree and returns the length of its valid prefix;
+    // a torn record at the end (crash mid-write) is cut off
+    private long replayWal() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(IO_BUFFER_BYTES);
+        long valid = 0;
+        wal.position(0);
+
+        replay:
+        while (wal.read(buffer) > 0 || buffer.position() > 0) {
+            buffer.flip();
+            if (buffer.remaining() < RECORD_BYTES && wal.position() == wal.size()) {
+                break; // Trailing partial record
+            }
+            while (buffer.remaining() >= RECORD_BYTES) {
+                byte op = buffer.get();
+                int value = buffer.getInt();
+                if (op == OP_INSERT) {
+                    tree.insert(value);
+                } else if (op == OP_DELETE) {
+                    tree.delete(value);
+                } else {
+                    break replay; // Garbage past the last good record
+                }
+                valid += RECORD_BYTES;
+            }
+            buffer.compact();
+        }
+
+        if (valid < wal.size()) {
+            wal.truncate(valid);
+        }
+        return valid;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,205 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongBiFunction;
+
+// In-memory cache whose entries expire after a per-entry time to live.
+// A HashMap finds entries by key; a RedBlackTree orders the same entries by
+// (deadline, key), so the entries due next are always at its minimum end.
+// Expiring pops them from there one leftmost walk each and stops at the
+// first live entry, so the cost depends on how many entries expired, not
+// on how many are cached.
+//
+// The cache is bounded by total weight (one per entry unless a weigher is
+// given). When a put goes over the bound, entries are evicted from the same
+// minimum end: the ones closest to expiry go first. The entry being put is
+// never its own victim, even when its deadline is the earliest.
+//
+// Each entry remembers its tree node, so replacing or removing a key
+// unlinks the node directly instead of searching for it. Not thread-safe.
+public class ExpiringCache <K extends Comparable<K>, V> {
+    private final Map<K, CacheEntry<K, V>> entries = new HashMap<>();
+    private final RedBlackTree<CacheEntry<K, V>> byDeadline = new RedBlackTree<>();
+    private final long maximumWeight;
+    private final ToLongBiFunction<? super K, ? super V> weigher;
+    private final LongSupplier clock;
+
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    public ExpiringCache(int maximumSize) {
+        this(maximumSize, (key, value) -> 1, System::nanoTime);
+    }
+
+    // weigher: cost of an entry against maximumWeight, must not be negative
+    // clock: current time in nanoseconds, System::nanoTime unless testing
+    public ExpiringCache(long maximumWeight, ToLongBiFunction<? super K, ? super V> weigher, LongSupplier clock) {
+        if (maximumWeight < 0) {
+            throw new IllegalArgumentException("Maximum weight must not be negative: " + maximumWeight);
+        }
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        this.clock = clock;
+    }
+
+    // Value for key, or null if it is absent or has expired
+    public V get(K key) {
+        CacheEntry<K, V> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (entry.deadline - clock.getAsLong() <= 0) {
+            unlink(entry);
+            expirations++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    // Stores value under key until timeToLive has passed and returns the
+    // previous live value, or null. An entry heavier than the whole cache is
+    // not stored and counts as an eviction.
+    public V put(K key, V value, long timeToLive, TimeUnit unit) {
+        long now = clock.getAsLong();
+        expire(now);
+
+        CacheEntry<K, V> previous = entries.remove(key);
+        V previousValue = null;
+        if (previous != null) {
+            removeFromTree(previous);
+            previousValue = previous.value;
+        }
+
+        long entryWeight = weigher.applyAsLong(key, value);
+        if (entryWeight < 0) {
+            throw new IllegalArgumentException("Negative weight " + entryWeight + " for key " + key);
+        }
+        if (entryWeight > maximumWeight) {
+            evictions++;
+            return previousValue;
+        }
+
+        CacheEntry<K, V> entry = new CacheEntry<>(key, value, now + unit.toNanos(timeToLive), entryWeight);
+        entry.node = byDeadline.findOrInsert(entry);
+        entries.put(key, entry);
+        weight += entryWeight;
+
+        // Over the bound: drop the entries that would expire soonest, skipping
+        // the new one. It fits on its own, so the others run out first.
+        while (weight > maximumWeight) {
+            Node<CacheEntry<K, V>> victim = byDeadline.firstNode();
+            if (victim == entry.node) {
+                victim = RedBlackTree.successor(victim);
+            }
+            unlink(victim.data);
+            evictions++;
+        }
+        return previousValue;
+    }
+
+    // Removes key and returns its live value, or null
+    public V remove(K key) {
+        CacheEntry<K, V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        unlink(entry);
+        return entry.deadline - clock.getAsLong() > 0 ? entry.value : null;
+    }
+
+    // Drops every entry whose deadline has passed; returns how many there were
+    public int expire() {
+        return expire(clock.getAsLong());
+    }
+
+    public void clear() {
+        entries.clear();
+        byDeadline.clear();
+        weight = 0;
+    }
+
+    // Entries held, including expired ones not yet dropped
+    public int size() {
+        return entries.size();
+    }
+
+    public long weight() {
+        return weight;
+    }
+
+    public long hits() {
+        return hits;
+    }
+
+    public long misses() {
+        return misses;
+    }
+
+    // Entries dropped to stay within the weight bound
+    public long evictions() {
+        return evictions;
+    }
+
+    // Entries dropped because their deadline passed
+    public long expirations() {
+        return expirations;
+    }
+
+    // Helper method to pop expired entries from the minimum end of the tree
+    private int expire(long now) {
+        int expired = 0;
+        Node<CacheEntry<K, V>> first;
+        while ((first = byDeadline.firstNode()) != null && first.data.deadline - now <= 0) {
+            unlink(first.data);
+            expired++;
+        }
+        expirations += expired;
+        return expired;
+    }
+
+    private void unlink(CacheEntry<K, V> entry) {
+        entries.remove(entry.key);
+        removeFromTree(entry);
+    }
+
+    private void removeFromTree(CacheEntry<K, V> entry) {
+        byDeadline.deleteNode(entry.node);
+        entry.node = null;
+        weight -= entry.weight;
+    }
+
+    // Ordered by deadline, ties broken by key so distinct keys never collide.
+    // Deadlines are compared by difference, which stays correct when
+    // System.nanoTime() wraps around.
+    private static final class CacheEntry <K extends Comparable<K>, V> implements Comparable<CacheEntry<K, V>> {
+        final K key;
+        final V value;
+        final long deadline;
+        final long weight;
+        Node<CacheEntry<K, V>> node; // Position in byDeadline
+
+        CacheEntry(K key, V value, long deadline, long weight) {
+            this.key = key;
+            this.value = value;
+            this.deadline = deadline;
+            this.weight = weight;
+        }
+
+        @Override
+        public int compareTo(CacheEntry<K, V> other) {
+            long difference = deadline - other.deadline;
+            if (difference != 0) {
+                return difference < 0 ? -1 : 1;
+            }
+            return key.compareTo(other.key);
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,130 @@
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+// Load generator for TreeServer.
+// Usage: java Main --load [host] [port] [connections] [requests per connection] [pipeline depth]
+//
+// Every connection runs on its own thread and keeps up to pipeline depth
+// requests in flight: it writes a window of requests in one go, then reads
+// their responses. A request's latency runs from the write of its window to
+// the arrival of its response. The mix is half searches, a quarter inserts
+// and a quarter deletes over keys drawn uniformly from [0, 1M).
+public final class LoadClient {
+    private static final int KEY_RANGE = 1 << 20;
+
+    public static void main(String[] args) throws Exception {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : TreeServer.DEFAULT_PORT;
+        int connections = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        int requests = args.length > 3 ? Integer.parseInt(args[3].replace("_", "")) : 200_000;
+        int pipeline = args.length > 4 ? Integer.parseInt(args[4]) : 16;
+        if (connections < 1 || requests < 1 || pipeline < 1) {
+            throw new IllegalArgumentException("Connections, requests and pipeline depth must be positive");
+        }
+
+        InetSocketAddress address = new InetSocketAddress(host, port);
+        List<Worker> workers = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            workers.add(new Worker(address, requests, pipeline, new Random(42 + i)));
+        }
+
+        long start = System.nanoTime();
+        for (Worker worker : workers) {
+            worker.start();
+        }
+        for (Worker worker : workers) {
+            worker.join();
+            if (worker.failure != null) {
+                throw worker.failure;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long[] latencies = new long[connections * requests];
+        int offset = 0;
+        for (Worker worker : workers) {
+            System.arraycopy(worker.latencies, 0, latencies, offset, requests);
+            offset += requests;
+        }
+        Arrays.sort(latencies);
+
+        System.out.printf("%d connections x %d requests, pipeline depth %d%n", connections, requests, pipeline);
+        System.out.printf("throughput: %.0f requests/s%n", latencies.length / (elapsed / 1e9));
+        System.out.printf("latency:    p50 %.1f us, p99 %.1f us, p999 %.1f us, max %.1f us%n",
+                percentile(latencies, 0.50) / 1e3, percentile(latencies, 0.99) / 1e3,
+                percentile(latencies, 0.999) / 1e3, latencies[latencies.length - 1] / 1e3);
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    private static final class Worker extends Thread {
+        private final InetSocketAddress address;
+        private final int pipeline;
+        private final Random random;
+        final long[] latencies;
+        Exception failure;
+
+        Worker(InetSocketAddress address, int requests, int pipeline, Random random) {
+            super("load-client");
+            this.address = address;
+            this.pipeline = pipeline;
+            this.random = random;
+            this.latencies = new long[requests];
+        }
+
+        @Override
+        public void run() {
+            byte[] window = new byte[pipeline * TreeServer.FRAME_BYTES];
+            byte[] response = new byte[TreeServer.FRAME_BYTES];
+
+            try (Socket socket = new Socket()) {
+                socket.setTcpNoDelay(true);
+                socket.connect(address);
+                OutputStream out = socket.getOutputStream();
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+
+                int sent = 0;
+                while (sent < latencies.length) {
+                    int count = Math.min(pipeline, latencies.length - sent);
+                    for (int i = 0, offset = 0; i < count; i++, offset += TreeServer.FRAME_BYTES) {
+                        window[offset] = nextOp();
+                        TreeServer.writeInt(window, offset + 1, random.nextInt(KEY_RANGE));
+                    }
+
+                    long windowStart = System.nanoTime();
+                    out.write(window, 0, count * TreeServer.FRAME_BYTES);
+                    for (int i = 0; i < count; i++) {
+                        in.readFully(response);
+                        if (response[0] == TreeServer.STATUS_UNKNOWN_OP) {
+                            throw new IOException("Server rejected op " + window[i * TreeServer.FRAME_BYTES]);
+                        }
+                        latencies[sent + i] = System.nanoTime() - windowStart;
+                    }
+                    sent += count;
+                }
+            } catch (Exception e) {
+                failure = e;
+            }
+        }
+
+        private byte nextOp() {
+            int roll = random.nextInt(4);
+            if (roll < 2) {
+                return TreeServer.OP_SEARCH;
+            }
+            return roll == 2 ? TreeServer.OP_INSERT : TreeServer.OP_DELETE;
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,77 @@
+import java.util.function.ToLongFunction;
+
+// The built-in aggregates of Aggregate: count, sum, min and max over a long
+// value read from each key. They compare equal when they are of the same
+// kind and read the same value function, so trees built by separate calls
+// such as Aggregate.count() can still be joined or combined. count() has
+// no state at all and always returns the same instance.
+final class LongAggregate <T> implements Aggregate<T, Long> {
+    enum Kind {
+        COUNT,
+        SUM,
+        MIN,
+        MAX
+    }
+
+    static final LongAggregate<Object> COUNT = new LongAggregate<>(Kind.COUNT, key -> 1L);
+
+    private final Kind kind;
+    private final ToLongFunction<? super T> value;
+
+    LongAggregate(Kind kind, ToLongFunction<? super T> value) {
+        this.kind = kind;
+        this.value = value;
+    }
+
+    @Override
+    public Long identity() {
+        switch (kind) {
+            case MIN:
+                return Long.MAX_VALUE;
+            case MAX:
+                return Long.MIN_VALUE;
+            default:
+                return 0L;
+        }
+    }
+
+    @Override
+    public Long of(T key) {
+        return value.applyAsLong(key);
+    }
+
+    @Override
+    public Long combine(Long left, Long right) {
+        switch (kind) {
+            case MIN:
+                return Math.min(left, right);
+            case MAX:
+                return Math.max(left, right);
+            default:
+                return left + right;
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof LongAggregate)) {
+            return false;
+        }
+        LongAggregate<?> aggregate = (LongAggregate<?>) other;
+        return kind == aggregate.kind && value.equals(aggregate.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * kind.hashCode() + value.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return kind.name().toLowerCase();
+    }
+
+}
\ No newline at end of file
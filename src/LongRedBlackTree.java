@@ -0,0 +1,98 @@
+import java.util.Arrays;
+
+// Red-Black Tree specialized for long keys; same layout as IntRedBlackTree.
+// Nodes live in parallel primitive arrays and are addressed by int slot
+// indices, so a key costs a handful of array cells instead of a Node object
+// holding a boxed Long. Links, colors, slot recycling and rebalancing
+// come from SlotRedBlackTree; this class holds the keys and compares them.
+public class LongRedBlackTree extends SlotRedBlackTree {
+    private long[] keys;
+
+    public LongRedBlackTree() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongRedBlackTree(int initialCapacity) {
+        super(initialCapacity);
+        this.keys = new long[left.length];
+    }
+
+    public boolean insert(long key) {
+        int current = root; // To traverse the tree
+        int parentSlot = NIL; // To keep track of the parent node
+        boolean goLeft = false;
+
+        while (current != NIL) {
+            parentSlot = current;
+            long currentKey = keys[current];
+
+            if (key < currentKey) {
+                current = left[current];
+                goLeft = true;
+            } else if (key > currentKey) {
+                current = right[current];
+                goLeft = false;
+            } else {
+                return false; // Element already exists, duplicate not allowed
+            }
+        }
+
+        int newNode = allocate();
+        keys[newNode] = key;
+        attach(newNode, parentSlot, goLeft);
+        return true;
+    }
+
+    public boolean delete(long key) {
+        int nodeToDelete = search(key);
+
+        if (nodeToDelete == NIL) {
+            return false; // Node not found
+        }
+
+        deleteSlot(nodeToDelete);
+        return true;
+    }
+
+    // Slot holding key, or NIL if the key is not in the tree
+    public int search(long key) {
+        int current = root;
+
+        while (current != NIL) {
+            long currentKey = keys[current];
+
+            if (key < currentKey) {
+                current = left[current];
+            } else if (key > currentKey) {
+                current = right[current];
+            } else {
+                return current; // Found the node
+            }
+        }
+
+        return NIL; // Node not found
+    }
+
+    public boolean contains(long key) {
+        return search(key) != NIL;
+    }
+
+    public long keyAt(int slot) {
+        return keys[slot];
+    }
+
+    @Override
+    void resizeKeys(int newCapacity) {
+        keys = Arrays.copyOf(keys, newCapacity);
+    }
+
+    @Override
+    void reorderKeys(int[] order) {
+        long[] newKeys = new long[order.length];
+        for (int slot = 0; slot < size(); slot++) {
+            newKeys[slot] = keys[order[slot]];
+        }
+        keys = newKeys;
+    }
+
+}
\ No newline at end of file
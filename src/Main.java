@@ -1,3 +1,11 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 
 public class Main {
@@ -5,8 +13,16 @@ public class Main {
     private static Scanner scanner;
     
     public static void main(String[] args) {
+        if (args.length > 0) {
+            runMode(args[0], Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
         tree = new RedBlackTree<>();
         scanner = new Scanner(System.in);
+        if (TreeMetrics.ENABLED) {
+            TreeMetrics.register();
+        }
         
         boolean continueProgram = true;
         
@@ -33,6 +49,9 @@ public class Main {
                 case 6:
                     clearTree();
                     break;
+                case 7:
+                    renderTree();
+                    break;
                 case 0:
                     continueProgram = false;
                     System.out.println("Thank you for using the Red-Black Tree Visualizer!");
@@ -49,7 +68,33 @@ public class Main {
         
         scanner.close();
     }
-    
+
+    // Non-interactive modes:
+    //   java Main --batch [input|-] [output|-] [--quiet]
+    //   java Main --server [port]
+    //   java Main --load [host] [port] [connections] [requests] [pipeline depth]
+    private static void runMode(String mode, String[] args) {
+        try {
+            switch (mode) {
+                case "--batch":
+                    BatchRunner.main(args);
+                    break;
+                case "--server":
+                    TreeServer.main(args);
+                    break;
+                case "--load":
+                    LoadClient.main(args);
+                    break;
+                default:
+                    System.err.println("Unknown option: " + mode + " (expected --batch, --server or --load)");
+                    System.exit(2);
+            }
+        } catch (Exception e) {
+            System.err.println("Run failed: " + e);
+            System.exit(1);
+        }
+    }
+
     private static void displayMenu() {
         System.out.println("\n┌──────────────────────────────────────────┐");
         System.out.println("│                  MENU                    │");
@@ -60,6 +105,7 @@ public class Main {
         System.out.println("│ 4. Show statistics                      │");
         System.out.println("│ 5. Insert multiple values               │");
         System.out.println("│ 6. Clear tree                           │");
+        System.out.println("│ 7. Render tree                          │");
         System.out.println("│ 0. Exit                                  │");
         System.out.println("└──────────────────────────────────────────┘");
         System.out.print("Choose an option: ");
@@ -162,21 +208,22 @@ public class Main {
     private static void showStatistics() {
         System.out.println("\n=== TREE STATISTICS ===");
         
-        int totalNodes = countNodes(tree.root);
+        int totalNodes = tree.size();
         
         if (totalNodes == 0) {
             System.out.println("The tree is empty!");
             return;
         }
         
-        int redNodes = countRedNodes(tree.root);
+        int redNodes = tree.reduce(0, node -> node.color == Color.RED ? 1 : 0, Integer::sum);
         int blackNodes = totalNodes - redNodes;
-        int height = calculateHeight(tree.root);
+        int height = tree.height();
         
         System.out.println("Total nodes: " + totalNodes);
         System.out.println("Red nodes: " + redNodes);
         System.out.println("Black nodes: " + blackNodes);
         System.out.println("Tree height: " + height);
+        System.out.println("Red-black properties: " + (tree.isValid() ? "all hold" : "VIOLATED"));
         System.out.println("Root: " + tree.root.data + " (" + tree.root.color + ")");
         
         Node<Integer> smallest = findSmallest(tree.root);
@@ -186,6 +233,14 @@ public class Main {
             System.out.println("Smallest value: " + smallest.data);
             System.out.println("Largest value: " + largest.data);
         }
+        
+        if (TreeMetrics.ENABLED) {
+            System.out.println("\n--- Instrumentation (since start) ---");
+            for (Map.Entry<String, Long> counter : TreeMetrics.snapshot().entrySet()) {
+                System.out.println(counter.getKey() + ": " + counter.getValue());
+            }
+            System.out.println("Comparisons by descent depth: " + Arrays.toString(TreeMetrics.depthHistogram()));
+        }
     }
     
     private static void insertMultipleValues() {
@@ -196,6 +251,7 @@ public class Main {
         try {
             String line = scanner.nextLine();
             String[] values = line.split(" ");
+            List<Integer> parsed = new ArrayList<>();
             int inserted = 0;
             int duplicates = 0;
             
@@ -204,20 +260,26 @@ public class Main {
             for (String valueStr : values) {
                 if (!valueStr.trim().isEmpty()) {
                     try {
-                        int value = Integer.parseInt(valueStr.trim());
-                        if (tree.insert(value)) {
-                            inserted++;
-                            System.out.println("✓ " + value + " inserted");
-                        } else {
-                            duplicates++;
-                            System.out.println("✗ " + value + " already exists");
-                        }
+                        parsed.add(Integer.parseInt(valueStr.trim()));
                     } catch (NumberFormatException e) {
                         System.out.println("✗ Invalid value ignored: " + valueStr);
                     }
                 }
             }
             
+            // One sorted batch instead of a root-to-leaf descent per value
+            boolean[] results = tree.insertAll(parsed);
+            for (int i = 0; i < results.length; i++) {
+                int value = parsed.get(i);
+                if (results[i]) {
+                    inserted++;
+                    System.out.println("✓ " + value + " inserted");
+                } else {
+                    duplicates++;
+                    System.out.println("✗ " + value + " already exists");
+                }
+            }
+            
             System.out.println("\nSummary:");
             System.out.println("Inserted: " + inserted);
             System.out.println("Duplicates: " + duplicates);
@@ -227,6 +289,51 @@ public class Main {
         }
     }
     
+    private static void renderTree() {
+        System.out.println("\n=== RENDER TREE ===");
+        if (isEmpty()) {
+            System.out.println("The tree is empty! Nothing to render.");
+            return;
+        }
+
+        System.out.print("Root value (Enter for the whole tree): ");
+        String rootText = scanner.nextLine().trim();
+        Integer rootKey = null;
+        if (!rootText.isEmpty()) {
+            try {
+                rootKey = Integer.parseInt(rootText);
+            } catch (NumberFormatException e) {
+                System.out.println("Please enter a valid integer number.");
+                return;
+            }
+        }
+        int depth = readValue("Depth limit: ");
+        int width = readValue("Width in columns: ");
+
+        TreeRenderer<Integer> renderer = new TreeRenderer<>(tree);
+        try {
+            String picture = renderer.ascii(rootKey, depth, width);
+            if (picture == null) {
+                System.out.println("✗ Value " + rootKey + " not found in the tree!");
+                return;
+            }
+            System.out.println();
+            System.out.print(picture);
+
+            System.out.print("\nSave as SVG file (Enter to skip): ");
+            String file = scanner.nextLine().trim();
+            if (!file.isEmpty()) {
+                // About 12 pixels per column keeps the SVG as deep as the ASCII view
+                Files.write(Paths.get(file), renderer.svg(rootKey, depth, width * 12).getBytes(StandardCharsets.UTF_8));
+                System.out.println("SVG written to " + file);
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println("✗ " + e.getMessage());
+        } catch (IOException e) {
+            System.out.println("✗ Could not write the SVG file: " + e.getMessage());
+        }
+    }
+
     private static void clearTree() {
         System.out.println("\n=== CLEAR TREE ===");
         System.out.print("Are you sure you want to clear the tree? (y/N): ");
@@ -241,7 +348,7 @@ public class Main {
     }
     
     private static void showQuickStatistics() {
-        int totalNodes = countNodes(tree.root);
+        int totalNodes = tree.size();
         if (totalNodes == 0) {
             System.out.println("Current state: Empty tree");
         } else {
@@ -253,22 +360,6 @@ public class Main {
         return tree.root == null;
     }
     
-    private static int countNodes(Node<Integer> node) {
-        if (node == null) return 0;
-        return 1 + countNodes(node.left) + countNodes(node.right);
-    }
-    
-    private static int countRedNodes(Node<Integer> node) {
-        if (node == null) return 0;
-        int count = (node.color == Color.RED) ? 1 : 0;
-        return count + countRedNodes(node.left) + countRedNodes(node.right);
-    }
-    
-    private static int calculateHeight(Node<Integer> node) {
-        if (node == null) return 0;
-        return 1 + Math.max(calculateHeight(node.left), calculateHeight(node.right));
-    }
-    
     private static Node<Integer> findSmallest(Node<Integer> node) {
         if (node == null) return null;
         while (node.left != null) {
@@ -284,4 +375,4 @@ public class Main {
         }
         return node;
     }
-}
+}
\ No newline at end of file
@@ -0,0 +1,49 @@
+import java.util.Map;
+import java.util.Objects;
+
+// Tree node of a RedBlackTreeMap: the key sits in data, the value beside it.
+// The node is the map entry itself, so setValue writes straight into the tree.
+public class MapNode <K, V> extends Node<K> implements Map.Entry<K, V> {
+    V value;
+
+    public MapNode(K key) {
+        super(key);
+    }
+
+    @Override
+    public K getKey() {
+        return data;
+    }
+
+    @Override
+    public V getValue() {
+        return value;
+    }
+
+    @Override
+    public V setValue(V value) {
+        V oldValue = this.value;
+        this.value = value;
+        return oldValue;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof Map.Entry)) {
+            return false;
+        }
+        Map.Entry<?, ?> entry = (Map.Entry<?, ?>) other;
+        return Objects.equals(data, entry.getKey()) && Objects.equals(value, entry.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(data) ^ Objects.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+        return data + "=" + value;
+    }
+
+}
\ No newline at end of file
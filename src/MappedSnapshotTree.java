@@ -0,0 +1,183 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+// Read-only int tree served straight from a memory-mapped file.
+// The file holds the keys of a RedBlackTree<Integer> as a sorted array, so
+// the implicit binary search tree over that array answers search, floor/
+// ceiling and range queries with no deserialization: opening costs one
+// mmap call and the heap footprint does not depend on the key count.
+//
+// Layout (big-endian): magic, key count, keys in ascending order.
+// A single mapping is limited to 2 GB, i.e. about 536M keys.
+public final class MappedSnapshotTree {
+    static final int MAGIC = 0x52424350; // "RBCP"
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_KEYS = (Integer.MAX_VALUE - HEADER_BYTES) / 4;
+    private static final int IO_BUFFER_BYTES = 64 * 1024;
+
+    private final IntBuffer keys;
+    private final int size;
+
+    private MappedSnapshotTree(IntBuffer keys) {
+        this.keys = keys;
+        this.size = keys.limit();
+    }
+
+    // Exports the keys of a tree in the snapshot layout and forces them to disk
+    public static void write(RedBlackTree<Integer> tree, Path file) throws IOException {
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(IO_BUFFER_BYTES);
+            buffer.putInt(MAGIC);
+            buffer.putInt(tree.size());
+            for (int key : tree) {
+                if (!buffer.hasRemaining()) {
+                    drain(buffer, out);
+                }
+                buffer.putInt(key);
+            }
+            drain(buffer, out);
+            out.force(true);
+        }
+    }
+
+    public static MappedSnapshotTree open(Path file) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = in.size();
+            if (length < HEADER_BYTES) {
+                throw new IOException("Truncated snapshot: " + file);
+            }
+
+            MappedByteBuffer mapped = in.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(length, Integer.MAX_VALUE));
+            if (mapped.getInt(0) != MAGIC) {
+                throw new IOException("Not a tree snapshot: " + file);
+            }
+            int count = mapped.getInt(4);
+            if (count < 0 || count > MAX_KEYS || HEADER_BYTES + 4L * count > length) {
+                throw new IOException("Corrupt key count " + count + " in " + file);
+            }
+
+            mapped.position(HEADER_BYTES);
+            IntBuffer keys = mapped.slice().asIntBuffer();
+            keys.limit(count);
+            return new MappedSnapshotTree(keys); // The mapping outlives the channel
+        }
+    }
+
+    // Index of key in the sorted key array, or -1 if it is not present
+    public int search(int key) {
+        int index = lowerBound(key);
+        return index < size && keys.get(index) == key ? index : -1;
+    }
+
+    public boolean contains(int key) {
+        return search(key) >= 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int keyAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+        }
+        return keys.get(index);
+    }
+
+    // Largest key <= key, or null if there is none
+    public Integer floor(int key) {
+        int index = upperBound(key) - 1;
+        return index >= 0 ? keys.get(index) : null;
+    }
+
+    // Largest key < key, or null if there is none
+    public Integer lower(int key) {
+        int index = lowerBound(key) - 1;
+        return index >= 0 ? keys.get(index) : null;
+    }
+
+    // Smallest key >= key, or null if there is none
+    public Integer ceiling(int key) {
+        int index = lowerBound(key);
+        return index < size ? keys.get(index) : null;
+    }
+
+    // Smallest key > key, or null if there is none
+    public Integer higher(int key) {
+        int index = upperBound(key);
+        return index < size ? keys.get(index) : null;
+    }
+
+    // Ascending iteration over keys in [low, high], read in place from the mapping
+    public PrimitiveIterator.OfInt rangeIterator(int low, int high) {
+        if (low > high) {
+            throw new IllegalArgumentException("low > high: " + low + " > " + high);
+        }
+        final int from = lowerBound(low);
+        final int to = upperBound(high);
+
+        return new PrimitiveIterator.OfInt() {
+            private int next = from;
+
+            @Override
+            public boolean hasNext() {
+                return next < to;
+            }
+
+            @Override
+            public int nextInt() {
+                if (next >= to) {
+                    throw new NoSuchElementException();
+                }
+                return keys.get(next++);
+            }
+        };
+    }
+
+    // Helper method to find the first index whose key is >= key
+    private int lowerBound(int key) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys.get(mid) < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // Helper method to find the first index whose key is > key
+    private int upperBound(int key) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys.get(mid) <= key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static void drain(ByteBuffer buffer, FileChannel out) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+
+}
\ No newline at end of file
@@ -4,12 +4,15 @@ public class Node <T> {
     Node<T> right;
     Node<T> parent;
     Color color;
+    int size; // Number of nodes in the subtree rooted here
+    Object aggregate; // Tree's Aggregate value for this subtree, null if the tree has none
 
     public Node() {
         this.left = null;
         this.right = null;
         this.parent = null;
         this.color = Color.RED;
+        this.size = 1;
     }
 
     public Node(T data) {
@@ -18,6 +21,7 @@ public class Node <T> {
         this.right = null;
         this.parent = null;
         this.color = Color.RED;
+        this.size = 1;
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,297 @@
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Immutable Red-Black Tree with path copying.
+// insert and delete return a new tree that shares every untouched subtree
+// with the old one; only the O(log n) nodes on the search path are copied.
+// Any version can be read from any number of threads without locking.
+//
+// Balancing follows Okasaki's insertion and Kahrs' deletion for functional
+// red-black trees. Nodes have no parent links, since a shared subtree can
+// hang below several versions at once.
+public final class PersistentRedBlackTree <T extends Comparable<T>> implements Iterable<T> {
+    private static final PersistentRedBlackTree<?> EMPTY = new PersistentRedBlackTree<>(null);
+
+    private final PersistentNode<T> root;
+
+    private PersistentRedBlackTree(PersistentNode<T> root) {
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T extends Comparable<T>> PersistentRedBlackTree<T> empty() {
+        return (PersistentRedBlackTree<T>) EMPTY;
+    }
+
+    // Returns a tree that also holds data, or this tree if data is already present
+    public PersistentRedBlackTree<T> insert(T data) {
+        PersistentNode<T> inserted = insert(root, data);
+        if (inserted == root) {
+            return this; // Element already exists, duplicate not allowed
+        }
+        return new PersistentRedBlackTree<>(blacken(inserted));
+    }
+
+    // Returns a tree without data, or this tree if data is not present
+    public PersistentRedBlackTree<T> delete(T data) {
+        if (!contains(data)) {
+            return this; // Node not found
+        }
+        PersistentNode<T> remaining = delete(root, data);
+        return remaining == null ? PersistentRedBlackTree.<T>empty() : new PersistentRedBlackTree<>(blacken(remaining));
+    }
+
+    public boolean contains(T data) {
+        PersistentNode<T> current = root;
+
+        while (current != null) {
+            int comparison = data.compareTo(current.data);
+
+            if (comparison < 0) {
+                current = current.left;
+            } else if (comparison > 0) {
+                current = current.right;
+            } else {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public int size() {
+        return sizeOf(root);
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    // Ascending iteration; keeps a stack of at most one path
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private final Deque<PersistentNode<T>> path = new ArrayDeque<>();
+
+            {
+                pushLeftSpine(root);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !path.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                if (path.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                PersistentNode<T> node = path.pop();
+                pushLeftSpine(node.right);
+                return node.data;
+            }
+
+            private void pushLeftSpine(PersistentNode<T> node) {
+                while (node != null) {
+                    path.push(node);
+                    node = node.left;
+                }
+            }
+        };
+    }
+
+    // Insertion (Okasaki): descend, add a red leaf, rebalance black nodes on the way back up
+
+    private static <T extends Comparable<T>> PersistentNode<T> insert(PersistentNode<T> node, T data) {
+        if (node == null) {
+            return new PersistentNode<>(Color.RED, null, data, null);
+        }
+
+        int comparison = data.compareTo(node.data);
+        if (comparison < 0) {
+            PersistentNode<T> left = insert(node.left, data);
+            if (left == node.left) {
+                return node; // Nothing changed below, share this subtree as is
+            }
+            return node.color == Color.BLACK
+                    ? balance(left, node.data, node.right)
+                    : new PersistentNode<>(Color.RED, left, node.data, node.right);
+        } else if (comparison > 0) {
+            PersistentNode<T> right = insert(node.right, data);
+            if (right == node.right) {
+                return node;
+            }
+            return node.color == Color.BLACK
+                    ? balance(node.left, node.data, right)
+                    : new PersistentNode<>(Color.RED, node.left, node.data, right);
+        }
+        return node;
+    }
+
+    // Builds a black node over left/data/right, resolving a red-red pair below it
+    private static <T> PersistentNode<T> balance(PersistentNode<T> left, T data, PersistentNode<T> right) {
+        if (isRed(left) && isRed(right)) {
+            return new PersistentNode<>(Color.RED, blacken(left), data, blacken(right));
+        }
+        if (isRed(left)) {
+            if (isRed(left.left)) {
+                return new PersistentNode<>(Color.RED, blacken(left.left), left.data,
+                        new PersistentNode<>(Color.BLACK, left.right, data, right));
+            }
+            if (isRed(left.right)) {
+                return new PersistentNode<>(Color.RED,
+                        new PersistentNode<>(Color.BLACK, left.left, left.data, left.right.left),
+                        left.right.data,
+                        new PersistentNode<>(Color.BLACK, left.right.right, data, right));
+            }
+        }
+        if (isRed(right)) {
+            if (isRed(right.right)) {
+                return new PersistentNode<>(Color.RED,
+                        new PersistentNode<>(Color.BLACK, left, data, right.left),
+                        right.data, blacken(right.right));
+            }
+            if (isRed(right.left)) {
+                return new PersistentNode<>(Color.RED,
+                        new PersistentNode<>(Color.BLACK, left, data, right.left.left),
+                        right.left.data,
+                        new PersistentNode<>(Color.BLACK, right.left.right, right.data, right.right));
+            }
+        }
+        return new PersistentNode<>(Color.BLACK, left, data, right);
+    }
+
+    // Deletion (Kahrs): the key must be present. Removing from a black
+    // subtree shortens it by one black level, which balanceLeft/balanceRight repair.
+
+    private static <T extends Comparable<T>> PersistentNode<T> delete(PersistentNode<T> node, T data) {
+        int comparison = data.compareTo(node.data);
+
+        if (comparison < 0) {
+            if (isBlack(node.left)) {
+                return balanceLeft(delete(node.left, data), node.data, node.right);
+            }
+            return new PersistentNode<>(Color.RED, delete(node.left, data), node.data, node.right);
+        } else if (comparison > 0) {
+            if (isBlack(node.right)) {
+                return balanceRight(node.left, node.data, delete(node.right, data));
+            }
+            return new PersistentNode<>(Color.RED, node.left, node.data, delete(node.right, data));
+        }
+        return append(node.left, node.right);
+    }
+
+    // Left side is one black level short
+    private static <T> PersistentNode<T> balanceLeft(PersistentNode<T> left, T data, PersistentNode<T> right) {
+        if (isRed(left)) {
+            return new PersistentNode<>(Color.RED, blacken(left), data, right);
+        }
+        if (isBlack(right)) {
+            return balance(left, data, redden(right));
+        }
+        if (isRed(right) && isBlack(right.left)) {
+            return new PersistentNode<>(Color.RED,
+                    new PersistentNode<>(Color.BLACK, left, data, right.left.left),
+                    right.left.data,
+                    balance(right.left.right, right.data, redden(right.right)));
+        }
+        throw new IllegalStateException("Red-black invariant violated during delete");
+    }
+
+    // Right side is one black level short
+    private static <T> PersistentNode<T> balanceRight(PersistentNode<T> left, T data, PersistentNode<T> right) {
+        if (isRed(right)) {
+            return new PersistentNode<>(Color.RED, left, data, blacken(right));
+        }
+        if (isBlack(left)) {
+            return balance(redden(left), data, right);
+        }
+        if (isRed(left) && isBlack(left.right)) {
+            return new PersistentNode<>(Color.RED,
+                    balance(redden(left.left), left.data, left.right.left),
+                    left.right.data,
+                    new PersistentNode<>(Color.BLACK, left.right.right, data, right));
+        }
+        throw new IllegalStateException("Red-black invariant violated during delete");
+    }
+
+    // Joins the two children of a removed node (all keys of left < all keys of right)
+    private static <T> PersistentNode<T> append(PersistentNode<T> left, PersistentNode<T> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+
+        if (isRed(left) && isRed(right)) {
+            PersistentNode<T> middle = append(left.right, right.left);
+            if (isRed(middle)) {
+                return new PersistentNode<>(Color.RED,
+                        new PersistentNode<>(Color.RED, left.left, left.data, middle.left),
+                        middle.data,
+                        new PersistentNode<>(Color.RED, middle.right, right.data, right.right));
+            }
+            return new PersistentNode<>(Color.RED, left.left, left.data,
+                    new PersistentNode<>(Color.RED, middle, right.data, right.right));
+        }
+        if (isBlack(left) && isBlack(right)) {
+            PersistentNode<T> middle = append(left.right, right.left);
+            if (isRed(middle)) {
+                return new PersistentNode<>(Color.RED,
+                        new PersistentNode<>(Color.BLACK, left.left, left.data, middle.left),
+                        middle.data,
+                        new PersistentNode<>(Color.BLACK, middle.right, right.data, right.right));
+            }
+            return balanceLeft(left.left, left.data, new PersistentNode<>(Color.BLACK, middle, right.data, right.right));
+        }
+        if (isRed(right)) {
+            return new PersistentNode<>(Color.RED, append(left, right.left), right.data, right.right);
+        }
+        return new PersistentNode<>(Color.RED, left.left, left.data, append(left.right, right));
+    }
+
+    private static boolean isRed(PersistentNode<?> node) {
+        return node != null && node.color == Color.RED;
+    }
+
+    private static boolean isBlack(PersistentNode<?> node) {
+        return node != null && node.color == Color.BLACK;
+    }
+
+    private static <T> PersistentNode<T> blacken(PersistentNode<T> node) {
+        return node.color == Color.BLACK ? node : new PersistentNode<>(Color.BLACK, node.left, node.data, node.right);
+    }
+
+    private static <T> PersistentNode<T> redden(PersistentNode<T> node) {
+        if (!isBlack(node)) {
+            throw new IllegalStateException("Red-black invariant violated during delete");
+        }
+        return new PersistentNode<>(Color.RED, node.left, node.data, node.right);
+    }
+
+    private static int sizeOf(PersistentNode<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    // Immutable node; the subtree size is fixed at construction
+    private static final class PersistentNode<T> {
+        final Color color;
+        final PersistentNode<T> left;
+        final T data;
+        final PersistentNode<T> right;
+        final int size;
+
+        PersistentNode(Color color, PersistentNode<T> left, T data, PersistentNode<T> right) {
+            this.color = color;
+            this.left = left;
+            this.data = data;
+            this.right = right;
+            this.size = sizeOf(left) + sizeOf(right) + 1;
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,1881 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class RedBlackTree <T extends Comparable<T>> implements Iterable<T> {
+    private static final int BATCH_INSERT = 0;
+    private static final int BATCH_DELETE = 1;
+    private static final int BATCH_CONTAINS = 2;
+
+    private static final int SET_UNION = 0;
+    private static final int SET_INTERSECTION = 1;
+    private static final int SET_DIFFERENCE = 2;
+    // Combined size below which a set operation stays on the current thread
+    private static final int PARALLEL_THRESHOLD = 8192;
+
+    Node<T> root;
+    private final Aggregate<? super T, Object> aggregate; // null when no aggregate is kept
+    private int clearCount; // Bumped when nodes leave in bulk, which cursors cannot see on the nodes
+    int modCount; // Bumped on every insert, delete and clear
+    private int verifyEvery; // Sampled verification interval, 0 = off
+    private int untilVerify;
+    private TreeEventListener<? super T> listener; // null = no events, the common case
+
+    public RedBlackTree() {
+        this.root = null;
+        this.aggregate = null;
+    }
+
+    // Tree that keeps aggregate's value for every subtree, enabling O(log n)
+    // range queries through aggregate(low, high)
+    @SuppressWarnings("unchecked")
+    public RedBlackTree(Aggregate<? super T, ?> aggregate) {
+        this.root = null;
+        this.aggregate = (Aggregate<? super T, Object>) aggregate;
+    }
+
+    // Builds a tree from keys already in ascending order in O(n), with no
+    // per-key descent or rebalancing. Equal neighbours are collapsed into one
+    // key; keys out of order are rejected.
+    public static <T extends Comparable<T>> RedBlackTree<T> fromSorted(List<? extends T> sorted) {
+        return build(sorted, false);
+    }
+
+    // Same as fromSorted, with the two halves of every large subtree built
+    // in parallel on the common ForkJoinPool
+    public static <T extends Comparable<T>> RedBlackTree<T> parallelFromSorted(List<? extends T> sorted) {
+        return build(sorted, true);
+    }
+
+    private static <T extends Comparable<T>> RedBlackTree<T> build(List<? extends T> sorted, boolean parallel) {
+        Object[] keys = new Object[sorted.size()];
+        int count = 0;
+        T previous = null;
+
+        for (T key : sorted) {
+            if (previous != null) {
+                int comparison = key.compareTo(previous);
+                if (comparison < 0) {
+                    throw new IllegalArgumentException("Input is not sorted: " + key + " after " + previous);
+                }
+                if (comparison == 0) {
+                    continue; // Duplicate not allowed
+                }
+            }
+            keys[count++] = key;
+            previous = key;
+        }
+
+        RedBlackTree<T> tree = new RedBlackTree<>();
+        if (parallel) {
+            tree.root = ForkJoinPool.commonPool().invoke(new BuildTask<T>(keys, 0, count - 1, 0, computeRedLevel(count)));
+        } else {
+            tree.root = buildFromSorted(keys, 0, count - 1, 0, computeRedLevel(count));
+        }
+        return tree;
+    }
+
+    public static <T extends Comparable<T>> RedBlackTree<T> fromSorted(T[] sorted) {
+        return fromSorted(Arrays.asList(sorted));
+    }
+
+    // Sorts a copy of the values first: O(n log n) comparisons, but still no rebalancing
+    public static <T extends Comparable<T>> RedBlackTree<T> fromUnsorted(Collection<? extends T> values) {
+        List<T> copy = new ArrayList<>(values);
+        Collections.sort(copy);
+        return fromSorted(copy);
+    }
+
+    public static <T extends Comparable<T>> RedBlackTree<T> fromStream(Stream<? extends T> values) {
+        List<T> sorted = values.sorted().collect(Collectors.toList());
+        return fromSorted(sorted);
+    }
+
+    public boolean insert(T data) {
+        return insertBelow(root, data) != null;
+    }
+
+    // Node holding data, inserted first if it was absent, found in a single
+    // descent. Callers tell the two cases apart by a change in size().
+    Node<T> findOrInsert(T data) {
+        return findOrInsertBelow(root, data);
+    }
+
+    // Node holding data or, if data is absent, the node it would hang below
+    // (null for an empty tree). Pass the latter to insertBelowParent while
+    // modCount is unchanged to add data without a second descent.
+    Node<T> findOrParent(T data) {
+        return locate(root, data);
+    }
+
+    // Adds data, known to be absent, as a new leaf under parent, the node
+    // findOrParent returned for it
+    Node<T> insertBelowParent(Node<T> parent, T data) {
+        if (parent == null) {
+            return findOrInsertBelow(null, data); // Empty tree: becomes the root
+        }
+        return attachLeaf(parent, data, data.compareTo(parent.data));
+    }
+
+    // Node factory; trees that keep more per key (such as map values) override it
+    Node<T> createNode(T data) {
+        return new Node<>(data);
+    }
+
+    // Inserts data by descending from start, whose subtree key range must
+    // cover data. Returns the new node, or null if data is already present.
+    private Node<T> insertBelow(Node<T> start, T data) {
+        int sizeBefore = size();
+        Node<T> node = findOrInsertBelow(start, data);
+        return size() != sizeBefore ? node : null;
+    }
+
+    private Node<T> findOrInsertBelow(Node<T> start, T data) {
+        if (root == null){
+            modCount++;
+            root = createNode(data);
+            root.color = Color.RED; // Reported as a red insert, then recolored like any other root
+            refresh(root);
+            emit(TreeEventType.INSERT, data, null);
+            setColor(root, Color.BLACK);
+            return root;
+        }
+
+        Node<T> current = start; // To traverse the tree
+        Node<T> parent = null; // To keep track of the parent node
+        int comparison = 0; // Last comparison made, against parent
+        int comparisons = 0;
+
+        while (current != null) {
+            parent = current;
+            comparison = data.compareTo(current.data);
+            comparisons++;
+
+            if (comparison < 0) {
+                current = current.left;
+            } else if (comparison > 0) {
+                current = current.right;
+            } else {
+                TreeMetrics.descent(comparisons);
+                return current; // Element already exists, duplicate not allowed
+            }
+        }
+        TreeMetrics.descent(comparisons);
+        return attachLeaf(parent, data, comparison);
+    }
+
+    // Helper method to hang a new red leaf for data below parent, on the
+    // side given by comparison (data against parent), and rebalance
+    private Node<T> attachLeaf(Node<T> parent, T data, int comparison) {
+        modCount++;
+
+        // Allocated only once the key is known to be new
+        Node<T> newNode = createNode(data);
+        newNode.color = Color.RED;
+        newNode.parent = parent;
+        if (comparison < 0) {
+            parent.left = newNode;
+        } else {
+            parent.right = newNode;
+        }
+
+        emit(TreeEventType.INSERT, data, null);
+
+        // Every ancestor of the new leaf gained one node
+        refreshUpward(newNode);
+
+        fixBalance(newNode);
+        sampleVerify(newNode);
+        return newNode;
+    }
+
+    public boolean delete(T data) {
+        Node<T> nodeToDelete = search(data);
+
+        if (nodeToDelete == null) {
+            return false; // Node not found
+        }
+
+        deleteNode(nodeToDelete);
+        return true;
+    }
+
+    // Unlinks a node already known to be in the tree. Other nodes keep their
+    // identity (the successor is relinked, not copied), so references held
+    // by iterators stay valid.
+    void deleteNode(Node<T> nodeToDelete) {
+        modCount++;
+        emit(TreeEventType.DELETE, nodeToDelete.data, null);
+        Node<T> nodeToReplace;
+        Node<T> nodeToFix;
+        Node<T> fixParent; // Parent of nodeToFix, which may itself be null
+        Color originalColor = nodeToDelete.color;
+        
+        // Case 1: Node has no left child
+        if (nodeToDelete.left == null) {
+            nodeToReplace = nodeToDelete.right;
+            fixParent = nodeToDelete.parent;
+            transplant(nodeToDelete, nodeToDelete.right);
+            nodeToFix = nodeToReplace;
+        }
+
+        // Case 2: Node has no right child
+        else if (nodeToDelete.right == null) {
+            nodeToReplace = nodeToDelete.left;
+            fixParent = nodeToDelete.parent;
+            transplant(nodeToDelete, nodeToDelete.left);
+            nodeToFix = nodeToReplace;
+        }
+        
+        // Case 3: Node has both children
+        else {
+            // Find successor (minimum in right subtree)
+            Node<T> successor = findMinimum(nodeToDelete.right);
+            originalColor = successor.color;
+            nodeToReplace = successor.right;
+            
+            if (successor.parent == nodeToDelete) {
+                fixParent = successor;
+                if (nodeToReplace != null) {
+                    nodeToReplace.parent = successor;
+                }
+            } else {
+                fixParent = successor.parent;
+                transplant(successor, successor.right);
+                successor.right = nodeToDelete.right;
+                successor.right.parent = successor;
+            }
+            
+            transplant(nodeToDelete, successor);
+            successor.left = nodeToDelete.left;
+            successor.left.parent = successor;
+            setColor(successor, nodeToDelete.color);
+            nodeToFix = nodeToReplace;
+        }
+
+        // Everything from the unlinked position up to the root lost one node
+        refreshUpward(fixParent);
+        
+        // Fix Red-Black Tree violations if a black node was deleted
+        if (originalColor == Color.BLACK) {
+            deleteFixup(nodeToFix, fixParent);
+        }
+
+        // A removed node keeps no links into the tree; cursors rely on this
+        nodeToDelete.left = null;
+        nodeToDelete.right = null;
+        nodeToDelete.parent = null;
+
+        sampleVerify(fixParent != null ? fixParent : root);
+    } 
+
+    public Node<T> search(T data) {
+        Node<T> current = root;
+        int comparisons = 0; // Only read by TreeMetrics, dead code when it is off
+        
+        while (current != null) {
+            int comparison = data.compareTo(current.data);
+            comparisons++;
+            
+            if (comparison < 0) {
+                current = current.left;
+            } else if (comparison > 0) {
+                current = current.right;
+            } else {
+                TreeMetrics.descent(comparisons);
+                return current; // Found the node
+            }
+        }
+        
+        TreeMetrics.descent(comparisons);
+        return null; // Node not found
+    } 
+
+    // Batch operations. Each takes the keys in any order and returns one
+    // result per key, in input order. Internally the batch is sorted once and
+    // every key is located from the node touched by the previous key, so
+    // neighbouring keys share most of their path instead of re-descending
+    // from the root. Repeated keys are handled in input order.
+
+    public boolean[] insertAll(Collection<? extends T> values) {
+        return applyAll(new ArrayList<T>(values), BATCH_INSERT);
+    }
+
+    public boolean[] insertAll(T[] values) {
+        return applyAll(Arrays.asList(values), BATCH_INSERT);
+    }
+
+    public boolean[] deleteAll(Collection<? extends T> values) {
+        return applyAll(new ArrayList<T>(values), BATCH_DELETE);
+    }
+
+    public boolean[] deleteAll(T[] values) {
+        return applyAll(Arrays.asList(values), BATCH_DELETE);
+    }
+
+    public boolean[] containsAll(Collection<? extends T> values) {
+        return applyAll(new ArrayList<T>(values), BATCH_CONTAINS);
+    }
+
+    public boolean[] containsAll(T[] values) {
+        return applyAll(Arrays.asList(values), BATCH_CONTAINS);
+    }
+
+    // Number of keys in the tree, kept in the root's subtree size
+    public int size() {
+        return sizeOf(root);
+    }
+
+    public void clear() {
+        root = null;
+        clearCount++;
+        modCount++;
+        emit(TreeEventType.CLEAR, null, null);
+    }
+
+    // Reports every later insert, delete, rotation, recolor and clear to
+    // listener, synchronously and in order; null detaches it. Bulk builds,
+    // join, split and the set operations assemble nodes directly and report
+    // nothing for the trees they produce.
+    public void setListener(TreeEventListener<? super T> listener) {
+        this.listener = listener;
+    }
+
+    // New cursor with no position; its first operation starts from the root
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    // Number of keys strictly smaller than data (its 0-based position if present)
+    public int rank(T data) {
+        Node<T> current = root;
+        int rank = 0;
+
+        while (current != null) {
+            int comparison = data.compareTo(current.data);
+
+            if (comparison < 0) {
+                current = current.left;
+            } else if (comparison > 0) {
+                rank += sizeOf(current.left) + 1;
+                current = current.right;
+            } else {
+                return rank + sizeOf(current.left);
+            }
+        }
+
+        return rank;
+    }
+
+    // Node holding the index-th smallest key (0-based), or null if out of range
+    public Node<T> select(int index) {
+        if (index < 0 || index >= size()) {
+            return null;
+        }
+
+        Node<T> current = root;
+        while (current != null) {
+            int leftSize = sizeOf(current.left);
+
+            if (index < leftSize) {
+                current = current.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                current = current.right;
+            } else {
+                return current;
+            }
+        }
+
+        return null;
+    }
+
+    // Aggregate over all keys in the tree
+    @SuppressWarnings("unchecked")
+    public <A> A aggregate() {
+        requireAggregate();
+        return (A) (root == null ? aggregate.identity() : root.aggregate);
+    }
+
+    // Aggregate over the keys in [low, high] in O(log n): below the node
+    // where the paths to low and high part, every subtree hanging inside the
+    // range contributes its stored value without being visited
+    @SuppressWarnings("unchecked")
+    public <A> A aggregate(T low, T high) {
+        requireAggregate();
+        if (low.compareTo(high) > 0) {
+            throw new IllegalArgumentException("low > high: " + low + " > " + high);
+        }
+
+        Node<T> split = root;
+        while (split != null) {
+            if (split.data.compareTo(low) < 0) {
+                split = split.right;
+            } else if (split.data.compareTo(high) > 0) {
+                split = split.left;
+            } else {
+                break;
+            }
+        }
+        if (split == null) {
+            return (A) aggregate.identity();
+        }
+
+        Object result = aggregate.of(split.data);
+
+        // Path to low: keys right of a node >= low are all in range
+        Node<T> current = split.left;
+        while (current != null) {
+            if (current.data.compareTo(low) >= 0) {
+                result = aggregate.combine(aggregateOf(current.right), result);
+                result = aggregate.combine(aggregate.of(current.data), result);
+                current = current.left;
+            } else {
+                current = current.right;
+            }
+        }
+
+        // Path to high: keys left of a node <= high are all in range
+        current = split.right;
+        while (current != null) {
+            if (current.data.compareTo(high) <= 0) {
+                result = aggregate.combine(result, aggregateOf(current.left));
+                result = aggregate.combine(result, aggregate.of(current.data));
+                current = current.right;
+            } else {
+                current = current.left;
+            }
+        }
+
+        return (A) result;
+    }
+
+    public void rotateLeft(Node<T> x) {
+        TreeMetrics.rotation(true);
+        emit(TreeEventType.ROTATE_LEFT, x.data, null);
+        Node<T> y = x.right;
+        x.right = y.left;
+        if (y.left != null) {
+            y.left.parent = x;
+        }
+        y.parent = x.parent;
+        if (x.parent == null) {
+            root = y;
+        } else if (x == x.parent.left) {
+            x.parent.left = y;
+        } else {
+            x.parent.right = y;
+        }
+        y.left = x;
+        x.parent = y;
+        y.size = x.size;
+        y.aggregate = x.aggregate;
+        refresh(x);
+    }
+    public void rotateRight(Node<T> y) {
+        TreeMetrics.rotation(false);
+        emit(TreeEventType.ROTATE_RIGHT, y.data, null);
+        Node<T> x = y.left;
+        y.left = x.right;
+        if (x.right != null) {
+            x.right.parent = y;
+        }
+        x.parent = y.parent;
+        if (y.parent == null) {
+            root = x;
+        } else if (y == y.parent.right) {
+            y.parent.right = x;
+        } else {
+            y.parent.left = x;
+        }
+        x.right = y;
+        y.parent = x;
+        x.size = y.size;
+        x.aggregate = y.aggregate;
+        refresh(y);
+    }
+    public void fixBalance(Node<T> node) {
+        fixRedChain(node);
+        if (root != null) {
+            setColor(root, Color.BLACK);
+        }
+    }
+
+    // Helper method to climb from a red node, resolving red-red violations;
+    // may leave the root red, which adds one to the black-height once the
+    // caller blackens it
+    private void fixRedChain(Node<T> node) {
+        while (node != null && node != root && node.parent != null && node.parent.color == Color.RED) {
+            if (node.parent == node.parent.parent.left) {
+                Node<T> uncle = node.parent.parent.right;
+                if (uncle != null && uncle.color == Color.RED) {
+                    // Case 1: Uncle is red
+                    TreeMetrics.insertCase(1);
+                    setColor(node.parent, Color.BLACK);
+                    setColor(uncle, Color.BLACK);
+                    setColor(node.parent.parent, Color.RED);
+                    node = node.parent.parent;
+                } else {
+                    if (node == node.parent.right) {
+                        // Case 2: Node is right child
+                        TreeMetrics.insertCase(2);
+                        node = node.parent;
+                        rotateLeft(node);
+                    }
+                    // Case 3: Node is left child
+                    TreeMetrics.insertCase(3);
+                    setColor(node.parent, Color.BLACK);
+                    setColor(node.parent.parent, Color.RED);
+                    rotateRight(node.parent.parent);
+                }
+            } else {
+                // Mirror cases for when parent is right child
+                Node<T> uncle = node.parent.parent.left;
+                if (uncle != null && uncle.color == Color.RED) {
+                    // Case 1: Uncle is red
+                    TreeMetrics.insertCase(1);
+                    setColor(node.parent, Color.BLACK);
+                    setColor(uncle, Color.BLACK);
+                    setColor(node.parent.parent, Color.RED);
+                    node = node.parent.parent;
+                } else {
+                    if (node == node.parent.left) {
+                        // Case 2: Node is left child
+                        TreeMetrics.insertCase(2);
+                        node = node.parent;
+                        rotateRight(node);
+                    }
+                    // Case 3: Node is right child
+                    TreeMetrics.insertCase(3);
+                    setColor(node.parent, Color.BLACK);
+                    setColor(node.parent.parent, Color.RED);
+                    rotateLeft(node.parent.parent);
+                }
+            }
+        }
+    }
+
+    // Helper method to recolor a node during rebalancing, counting and reporting real changes
+    private void setColor(Node<T> node, Color color) {
+        if (node.color != color) {
+            TreeMetrics.recolor();
+            emit(TreeEventType.RECOLOR, node.data, color);
+        }
+        node.color = color;
+    }
+
+    // Helper method to pass an event to the listener; one field test when there is none
+    private void emit(TreeEventType type, T key, Color color) {
+        if (listener != null) {
+            listener.onEvent(type, key, color);
+        }
+    }
+
+    // Helper method to replace one subtree with another
+    private void transplant(Node<T> u, Node<T> v) {
+        if (u.parent == null) {
+            root = v;
+        } else if (u == u.parent.left) {
+            u.parent.left = v;
+        } else {
+            u.parent.right = v;
+        }
+        
+        if (v != null) {
+            v.parent = u.parent;
+        }
+    }
+
+    // Largest key <= data, or null if there is none
+    public T floor(T data) {
+        return dataOf(floorNode(data, true));
+    }
+
+    // Largest key < data, or null if there is none
+    public T lower(T data) {
+        return dataOf(floorNode(data, false));
+    }
+
+    // Smallest key >= data, or null if there is none
+    public T ceiling(T data) {
+        return dataOf(ceilingNode(data, true));
+    }
+
+    // Smallest key > data, or null if there is none
+    public T higher(T data) {
+        return dataOf(ceilingNode(data, false));
+    }
+
+    // Removes and returns the smallest key, or null if the tree is empty.
+    // The minimum has no left child, so the removal needs no successor walk.
+    public T pollFirst() {
+        Node<T> first = firstNode();
+        if (first == null) {
+            return null;
+        }
+        deleteNode(first);
+        return first.data;
+    }
+
+    // Removes and returns the largest key, or null if the tree is empty
+    public T pollLast() {
+        Node<T> last = lastNode();
+        if (last == null) {
+            return null;
+        }
+        deleteNode(last);
+        return last.data;
+    }
+
+    // Join, split and set operations. They work on black-heights and move
+    // nodes between trees instead of copying keys, so the argument trees are
+    // consumed: each is left empty and its nodes end up in the result.
+
+    // Tree holding all keys of left, then pivot, then all keys of right.
+    // Requires left < pivot < right. Runs in O(log n): measuring the two
+    // black-heights walks both spines once; linking itself only costs
+    // O(|bh(left) - bh(right)| + 1).
+    public static <T extends Comparable<T>> RedBlackTree<T> join(RedBlackTree<T> left, T pivot, RedBlackTree<T> right) {
+        if ((left.root != null && left.findMaximum(left.root).data.compareTo(pivot) >= 0) ||
+            (right.root != null && right.findMinimum(right.root).data.compareTo(pivot) <= 0)) {
+            throw new IllegalArgumentException("Keys must satisfy left < " + pivot + " < right");
+        }
+        requireSameAggregate(left, right);
+
+        Node<T> joined = left.joinNodes(measure(left.root), new Node<>(pivot), measure(right.root)).root;
+        left.clear();
+        right.clear();
+        return left.wrap(joined);
+    }
+
+    // Splits this tree around key in O(log n); this tree is left empty.
+    // The black-height is measured once at the root and carried down, so
+    // the joins along the path cost O(log n) together.
+    public Split<T> split(T key) {
+        Subtree<T> whole = measure(root);
+        SplitNodes<T> parts = splitNodes(whole.root, whole.height, key);
+        clear();
+        return new Split<>(wrap(parts.lower.root), parts.match != null, wrap(parts.upper.root));
+    }
+
+    // Keys in a or b. Runs in O(m log(n/m + 1)) work for sizes m <= n and
+    // forks the two independent halves of each level onto the common pool.
+    public static <T extends Comparable<T>> RedBlackTree<T> union(RedBlackTree<T> a, RedBlackTree<T> b) {
+        return setOperation(SET_UNION, a, b);
+    }
+
+    // Keys in both a and b
+    public static <T extends Comparable<T>> RedBlackTree<T> intersection(RedBlackTree<T> a, RedBlackTree<T> b) {
+        return setOperation(SET_INTERSECTION, a, b);
+    }
+
+    // Keys in a but not in b
+    public static <T extends Comparable<T>> RedBlackTree<T> difference(RedBlackTree<T> a, RedBlackTree<T> b) {
+        return setOperation(SET_DIFFERENCE, a, b);
+    }
+
+    // Result of split(key): keys below key, whether key was present, keys above key
+    public static final class Split <T extends Comparable<T>> {
+        public final RedBlackTree<T> lower;
+        public final boolean found;
+        public final RedBlackTree<T> upper;
+
+        Split(RedBlackTree<T> lower, boolean found, RedBlackTree<T> upper) {
+            this.lower = lower;
+            this.found = found;
+            this.upper = upper;
+        }
+    }
+
+    // Ascending stream of keys; parallel streams split at subtree boundaries
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    // Sized spliterator over the keys. Splits hand off the keys below the
+    // highest node inside the remaining range, so each half is a run of whole
+    // subtrees and both report exact sizes from the subtree counts.
+    @Override
+    public Spliterator<T> spliterator() {
+        return new TreeSpliterator(root == null ? null : findMinimum(root), 0, size());
+    }
+
+    // Maps every node and combines the results in key order, working on
+    // large subtrees in parallel. combiner must be associative.
+    public <R> R reduce(R identity, Function<? super Node<T>, ? extends R> mapper, BinaryOperator<R> combiner) {
+        return ForkJoinPool.commonPool().invoke(new ReduceTask<>(root, identity, mapper, combiner));
+    }
+
+    // Number of levels on the longest root-to-leaf path
+    public int height() {
+        return ForkJoinPool.commonPool().invoke(new HeightTask(root));
+    }
+
+    // Invariant checks. Any violation throws IllegalStateException naming
+    // the node where it was found.
+
+    // Checks the whole tree in one O(n) pass with no recursion or stack: BST
+    // order, root is black, no red node has a red child, every path has the
+    // same number of black nodes, parent links match child links and subtree
+    // sizes add up. The walk follows child and parent links and carries the
+    // black depth along, adding a node's color on the way down and taking it
+    // off on the way back up.
+    public void verify() {
+        if (root == null) {
+            return;
+        }
+        if (root.parent != null) {
+            throw new IllegalStateException("Root " + root.data + " has a parent");
+        }
+        if (root.color != Color.BLACK) {
+            throw new IllegalStateException("Root " + root.data + " is red");
+        }
+
+        Node<T> node = root;
+        Node<T> from = null; // Node the walk just left
+        Node<T> previous = null; // Last node visited in key order
+        int blackDepth = enter(root, 0);
+        int blackHeight = -1; // Black depth of the first leaf reached
+
+        while (node != null) {
+            if (from == node.parent) {
+                // Arrived from above: go down the left side first
+                if (node.left != null) {
+                    blackDepth = enter(descend(node, node.left), blackDepth);
+                    from = node;
+                    node = node.left;
+                    continue;
+                }
+                blackHeight = checkLeaf(node, blackDepth, blackHeight);
+            }
+            if (from == node.parent || from == node.left) {
+                // Left side done: visit node, then go down the right side
+                if (previous != null && previous.data.compareTo(node.data) >= 0) {
+                    throw new IllegalStateException("Key " + node.data + " follows " + previous.data);
+                }
+                previous = node;
+                if (node.right != null) {
+                    blackDepth = enter(descend(node, node.right), blackDepth);
+                    from = node;
+                    node = node.right;
+                    continue;
+                }
+                blackHeight = checkLeaf(node, blackDepth, blackHeight);
+            }
+            // Both sides done: climb
+            if (node.color == Color.BLACK) {
+                blackDepth--;
+            }
+            from = node;
+            node = node.parent;
+        }
+    }
+
+    // Same as verify, returning false instead of throwing
+    public boolean isValid() {
+        try {
+            verify();
+            return true;
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+    // Sampled verification for production use: every n-th insert or delete
+    // (n = 1 for all of them, 0 to turn it off) spot-checks the nodes around
+    // the path it touched, from there up to the root (see verifyPath). A
+    // check costs O(log^2 n) and an operation that is not sampled only pays
+    // a counter decrement. This is a best-effort check: it looks at the
+    // region an operation can have changed, not at the whole tree, so even
+    // verifyEvery(1) does not replace verify() or isValid().
+    public void verifyEvery(int operations) {
+        if (operations < 0) {
+            throw new IllegalArgumentException("Negative interval: " + operations);
+        }
+        verifyEvery = operations;
+        untilVerify = operations;
+    }
+
+    // Spot check of the region an insert or delete at node can have changed.
+    // Walks from node up to the root; at each ancestor it checks the ancestor,
+    // its children and its grandchildren, since the rotations of a fixup move
+    // nodes up to two levels off the path. Each checked node is tested
+    // against its children for links, order, red-red and size, and the
+    // black-heights below it are compared along the leftmost and rightmost
+    // paths of both children. Other paths are not walked, so a black-height
+    // error away from those spines can go unnoticed; verify() sees everything.
+    void verifyPath(Node<T> node) {
+        while (node != null) {
+            Node<T> parent = node.parent;
+            if (parent == null ? node != root : parent.left != node && parent.right != node) {
+                throw new IllegalStateException("Broken parent link at " + node.data);
+            }
+            checkAround(node, 2);
+            node = parent;
+        }
+        if (root != null && root.color != Color.BLACK) {
+            throw new IllegalStateException("Root " + root.data + " is red");
+        }
+    }
+
+    // Helper method to check node and its descendants down to the given number of levels
+    private void checkAround(Node<T> node, int levels) {
+        checkLocal(node);
+        if (levels > 0) {
+            if (node.left != null) {
+                checkAround(node.left, levels - 1);
+            }
+            if (node.right != null) {
+                checkAround(node.right, levels - 1);
+            }
+        }
+    }
+
+    // Helper method to check one node against its children
+    private void checkLocal(Node<T> node) {
+        if (node.left != null) {
+            descend(node, node.left);
+            if (node.left.data.compareTo(node.data) >= 0) {
+                throw new IllegalStateException("Left child " + node.left.data + " of " + node.data + " out of order");
+            }
+        }
+        if (node.right != null) {
+            descend(node, node.right);
+            if (node.right.data.compareTo(node.data) <= 0) {
+                throw new IllegalStateException("Right child " + node.right.data + " of " + node.data + " out of order");
+            }
+        }
+        enter(node, 0);
+
+        int height = blackHeight(node.left);
+        if (rightBlackHeight(node.left) != height || blackHeight(node.right) != height
+                || rightBlackHeight(node.right) != height) {
+            throw new IllegalStateException("Unequal black-heights below " + node.data);
+        }
+    }
+
+    // Helper method to check the link from parent down to child and the red-red rule
+    private Node<T> descend(Node<T> parent, Node<T> child) {
+        if (child.parent != parent) {
+            throw new IllegalStateException("Broken parent link at " + child.data);
+        }
+        if (child.color == Color.RED && parent.color == Color.RED) {
+            throw new IllegalStateException("Red node " + child.data + " has a red parent");
+        }
+        return child;
+    }
+
+    // Helper method to check a node's size and add it to the black depth
+    private int enter(Node<T> node, int blackDepth) {
+        if (node.size != sizeOf(node.left) + sizeOf(node.right) + 1) {
+            throw new IllegalStateException("Wrong subtree size " + node.size + " at " + node.data);
+        }
+        return node.color == Color.BLACK ? blackDepth + 1 : blackDepth;
+    }
+
+    // Helper method to compare the black depth at an empty child with the first one seen
+    private static int checkLeaf(Node<?> node, int blackDepth, int blackHeight) {
+        if (blackHeight >= 0 && blackDepth != blackHeight) {
+            throw new IllegalStateException("Black-height " + blackDepth + " below " + node.data
+                    + ", expected " + blackHeight);
+        }
+        return blackDepth;
+    }
+
+    private void sampleVerify(Node<T> node) {
+        if (verifyEvery != 0 && --untilVerify <= 0) {
+            untilVerify = verifyEvery;
+            verifyPath(node);
+        }
+    }
+
+    // Ascending iteration; each step follows parent links, no stack is kept
+    @Override
+    public Iterator<T> iterator() {
+        return new TreeIterator(root == null ? null : findMinimum(root), null, false);
+    }
+
+    public Iterator<T> descendingIterator() {
+        return new TreeIterator(root == null ? null : findMaximum(root), null, true);
+    }
+
+    // Ascending iteration over keys in [low, high]: O(log n) to find the
+    // first key, then amortized O(1) per key
+    public Iterator<T> rangeIterator(T low, T high) {
+        if (low.compareTo(high) > 0) {
+            throw new IllegalArgumentException("low > high: " + low + " > " + high);
+        }
+        return new TreeIterator(ceilingNode(low, true), high, false);
+    }
+
+    // In-order neighbour of a node, found through child and parent links
+    static <T> Node<T> successor(Node<T> node) {
+        if (node.right != null) {
+            node = node.right;
+            while (node.left != null) {
+                node = node.left;
+            }
+            return node;
+        }
+
+        Node<T> parent = node.parent;
+        while (parent != null && node == parent.right) {
+            node = parent;
+            parent = parent.parent;
+        }
+        return parent;
+    }
+
+    static <T> Node<T> predecessor(Node<T> node) {
+        if (node.left != null) {
+            node = node.left;
+            while (node.right != null) {
+                node = node.right;
+            }
+            return node;
+        }
+
+        Node<T> parent = node.parent;
+        while (parent != null && node == parent.left) {
+            node = parent;
+            parent = parent.parent;
+        }
+        return parent;
+    }
+
+    // Node with the smallest key, or null if the tree is empty
+    Node<T> firstNode() {
+        return root == null ? null : findMinimum(root);
+    }
+
+    Node<T> lastNode() {
+        return root == null ? null : findMaximum(root);
+    }
+
+    // Helper method to find the node with the largest key <= data (or < data)
+    Node<T> floorNode(T data, boolean inclusive) {
+        Node<T> current = root;
+        Node<T> best = null;
+
+        while (current != null) {
+            int comparison = data.compareTo(current.data);
+
+            if (comparison > 0) {
+                best = current;
+                current = current.right;
+            } else if (comparison < 0 || !inclusive) {
+                current = current.left;
+            } else {
+                return current; // Exact match
+            }
+        }
+
+        return best;
+    }
+
+    // Helper method to find the node with the smallest key >= data (or > data)
+    Node<T> ceilingNode(T data, boolean inclusive) {
+        Node<T> current = root;
+        Node<T> best = null;
+
+        while (current != null) {
+            int comparison = data.compareTo(current.data);
+
+            if (comparison < 0) {
+                best = current;
+                current = current.left;
+            } else if (comparison > 0 || !inclusive) {
+                current = current.right;
+            } else {
+                return current; // Exact match
+            }
+        }
+
+        return best;
+    }
+
+    private static <T> T dataOf(Node<T> node) {
+        return node == null ? null : node.data;
+    }
+
+    // Finger into the tree for access patterns with locality. Each operation
+    // starts from the node touched by the previous one: it climbs parent links
+    // only until the subtree covers the new key, then descends. A sequential
+    // sweep, each key next to the previous one, costs amortized O(1)
+    // comparisons per step, like an in-order walk. Any single operation is
+    // still O(log n): with only parent links the climb has to reach the lowest
+    // common ancestor of the two keys, and for neighbours on either side of
+    // the root that is the root itself. If the finger node has since been
+    // deleted (or the tree cleared), it starts from the root.
+    // A cursor is not thread-safe; use one per thread.
+    public final class Cursor {
+        private Node<T> finger;
+        private int clearCountSeen;
+
+        private Cursor() {
+        }
+
+        // Node holding data, or null if it is not present
+        public Node<T> search(T data) {
+            Node<T> found = locate(start(data), data);
+            finger = found;
+            return found != null && data.compareTo(found.data) == 0 ? found : null;
+        }
+
+        public boolean contains(T data) {
+            return search(data) != null;
+        }
+
+        public boolean insert(T data) {
+            int sizeBefore = size();
+            finger = findOrInsertBelow(start(data), data);
+            return size() != sizeBefore;
+        }
+
+        public boolean delete(T data) {
+            Node<T> found = search(data);
+            if (found == null) {
+                return false; // Node not found
+            }
+
+            // A neighbour survives the delete and is where the next key starts
+            Node<T> neighbour = successor(found);
+            if (neighbour == null) {
+                neighbour = predecessor(found);
+            }
+            deleteNode(found);
+            finger = neighbour;
+            return true;
+        }
+
+        // Forgets the position; the next operation starts from the root
+        public void reset() {
+            finger = null;
+        }
+
+        // Helper method to pick the starting node for data
+        private Node<T> start(T data) {
+            boolean removed = finger != null && finger.parent == null && finger != root;
+            if (finger == null || removed || clearCountSeen != clearCount) {
+                finger = null;
+                clearCountSeen = clearCount;
+                return root;
+            }
+            return climbToward(finger, data);
+        }
+    }
+
+    // Walks successor (or predecessor) links from a starting node, stopping
+    // after the bound if one is given
+    private class TreeIterator implements Iterator<T> {
+        private Node<T> next;
+        private Node<T> lastReturned;
+        private final T bound;
+        private final boolean descending;
+
+        TreeIterator(Node<T> first, T bound, boolean descending) {
+            this.bound = bound;
+            this.descending = descending;
+            this.next = withinBound(first) ? first : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public T next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = next;
+            Node<T> following = descending ? predecessor(next) : successor(next);
+            next = withinBound(following) ? following : null;
+            return lastReturned.data;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            deleteNode(lastReturned);
+            lastReturned = null;
+        }
+
+        private boolean withinBound(Node<T> node) {
+            if (node == null || bound == null) {
+                return node != null;
+            }
+            int comparison = node.data.compareTo(bound);
+            return descending ? comparison >= 0 : comparison <= 0;
+        }
+    }
+
+    private boolean[] applyAll(final List<T> keys, int operation) {
+        Integer[] order = new Integer[keys.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        // Stable sort, so repeated keys keep their input order
+        Arrays.sort(order, (a, b) -> keys.get(a).compareTo(keys.get(b)));
+
+        boolean[] results = new boolean[order.length];
+        Node<T> finger = null; // Last node touched, where the next search starts
+
+        for (int index : order) {
+            T key = keys.get(index);
+            Node<T> start = (finger == null) ? root : climbToward(finger, key);
+
+            if (operation == BATCH_INSERT) {
+                Node<T> inserted = insertBelow(start, key);
+                results[index] = inserted != null;
+                finger = (inserted != null) ? inserted : start;
+            } else {
+                Node<T> found = locate(start, key);
+                boolean present = found != null && key.compareTo(found.data) == 0;
+                results[index] = present;
+                finger = found;
+
+                if (present && operation == BATCH_DELETE) {
+                    // The successor survives the delete and is where the next key starts
+                    Node<T> next = successor(found);
+                    deleteNode(found);
+                    finger = next;
+                }
+            }
+        }
+
+        return results;
+    }
+
+    // Helper method for finger search: climbs from finger to the lowest
+    // ancestor whose subtree key range covers data (or to the node holding
+    // data), so the descent that follows starts there instead of at the root.
+    // The climb and descent together are bounded by twice the height of the
+    // lowest common ancestor of finger and data, not by their distance.
+    private Node<T> climbToward(Node<T> finger, T data) {
+        Node<T> current = finger;
+        int comparison = data.compareTo(current.data);
+
+        if (comparison > 0) {
+            // data is above every lower bound on the way up; stop at the
+            // first ancestor edge whose upper bound is above data
+            while (current.parent != null) {
+                Node<T> parent = current.parent;
+                if (current == parent.left) {
+                    int parentComparison = data.compareTo(parent.data);
+                    if (parentComparison < 0) {
+                        break;
+                    }
+                    if (parentComparison == 0) {
+                        return parent;
+                    }
+                }
+                current = parent;
+            }
+        } else if (comparison < 0) {
+            // Mirror case for data below the finger
+            while (current.parent != null) {
+                Node<T> parent = current.parent;
+                if (current == parent.right) {
+                    int parentComparison = data.compareTo(parent.data);
+                    if (parentComparison > 0) {
+                        break;
+                    }
+                    if (parentComparison == 0) {
+                        return parent;
+                    }
+                }
+                current = parent;
+            }
+        }
+
+        return current;
+    }
+
+    // Helper method to descend from start; returns the node holding data, or
+    // the last node visited (where data would be attached) if it is absent
+    private Node<T> locate(Node<T> start, T data) {
+        Node<T> current = start;
+        Node<T> last = start;
+        int comparisons = 0;
+
+        while (current != null) {
+            last = current;
+            int comparison = data.compareTo(current.data);
+            comparisons++;
+
+            if (comparison < 0) {
+                current = current.left;
+            } else if (comparison > 0) {
+                current = current.right;
+            } else {
+                TreeMetrics.descent(comparisons);
+                return current;
+            }
+        }
+
+        TreeMetrics.descent(comparisons);
+        return last;
+    }
+
+    private static <T extends Comparable<T>> RedBlackTree<T> setOperation(int operation, RedBlackTree<T> a,
+                                                                          RedBlackTree<T> b) {
+        requireSameAggregate(a, b);
+        Subtree<T> first = measure(a.root);
+        Subtree<T> second = measure(b.root);
+        a.clear();
+        b.clear();
+        return a.wrap(ForkJoinPool.commonPool().invoke(new SetOperationTask<>(a, operation, first, second)).root);
+    }
+
+    // One level of union/intersection/difference: expose the root of the
+    // second tree, split the first around it, recurse on both sides (in
+    // parallel when large enough), then join the halves back together
+    private static final class SetOperationTask <T extends Comparable<T>> extends RecursiveTask<Subtree<T>> {
+        private static final long serialVersionUID = 1L;
+
+        private final RedBlackTree<T> context; // Supplies the aggregate for rebuilt nodes
+        private final int operation;
+        private final Subtree<T> first;
+        private final Subtree<T> second;
+
+        SetOperationTask(RedBlackTree<T> context, int operation, Subtree<T> first, Subtree<T> second) {
+            this.context = context;
+            this.operation = operation;
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        protected Subtree<T> compute() {
+            if (first.root == null) {
+                return operation == SET_UNION ? second : first;
+            }
+            if (second.root == null) {
+                return operation == SET_INTERSECTION ? second : first;
+            }
+
+            Node<T> pivot = second.root;
+            Subtree<T> secondLeft = detachChild(pivot.left, second.height);
+            Subtree<T> secondRight = detachChild(pivot.right, second.height);
+            SplitNodes<T> parts = context.splitNodes(first.root, first.height, pivot.data);
+
+            SetOperationTask<T> leftTask = new SetOperationTask<>(context, operation, parts.lower, secondLeft);
+            SetOperationTask<T> rightTask = new SetOperationTask<>(context, operation, parts.upper, secondRight);
+            Subtree<T> left;
+            Subtree<T> right;
+            if (sizeOf(first.root) + sizeOf(second.root) >= PARALLEL_THRESHOLD) {
+                leftTask.fork();
+                right = rightTask.compute();
+                left = leftTask.join();
+            } else {
+                left = leftTask.compute();
+                right = rightTask.compute();
+            }
+
+            boolean keepPivot = operation == SET_UNION || (operation == SET_INTERSECTION && parts.match != null);
+            return keepPivot ? context.joinNodes(left, pivot, right) : context.joinWithoutPivot(left, right);
+        }
+    }
+
+    // A detached subtree with a black root and its black-height, node
+    // included. Split, join and the set operations pass heights along
+    // instead of walking a spine to measure them at every join.
+    private static final class Subtree <T> {
+        final Node<T> root;
+        final int height;
+
+        Subtree(Node<T> root, int height) {
+            this.root = root;
+            this.height = height;
+        }
+    }
+
+    // Nodes making up the result of a split
+    private static final class SplitNodes <T> {
+        Subtree<T> lower;
+        Node<T> match;
+        Subtree<T> upper;
+    }
+
+    // Helper method to split a detached subtree of black-height height
+    // around key, joining the pieces left over at each level back onto the
+    // matching side. Each join costs the height difference of its inputs,
+    // and those differences add up to O(height) along the path.
+    private SplitNodes<T> splitNodes(Node<T> node, int height, T key) {
+        if (node == null) {
+            SplitNodes<T> parts = new SplitNodes<>();
+            parts.lower = new Subtree<>(null, 0);
+            parts.upper = parts.lower;
+            return parts;
+        }
+
+        Subtree<T> left = detachChild(node.left, height);
+        Subtree<T> right = detachChild(node.right, height);
+        int comparison = key.compareTo(node.data);
+
+        SplitNodes<T> parts;
+        if (comparison < 0) {
+            parts = splitNodes(left.root, left.height, key);
+            parts.upper = joinNodes(parts.upper, node, right);
+        } else if (comparison > 0) {
+            parts = splitNodes(right.root, right.height, key);
+            parts.lower = joinNodes(left, node, parts.lower);
+        } else {
+            parts = new SplitNodes<>();
+            parts.lower = left;
+            parts.match = node;
+            parts.upper = right;
+        }
+        return parts;
+    }
+
+    // Helper method to join two detached subtrees around a pivot node: hang
+    // the pivot as a red node where the taller tree's spine reaches the
+    // other tree's black-height, then repair as after an insert. Runs in
+    // O(|leftHeight - rightHeight| + 1) given the two heights.
+    private Subtree<T> joinNodes(Subtree<T> leftTree, Node<T> pivot, Subtree<T> rightTree) {
+        Node<T> left = leftTree.root;
+        Node<T> right = rightTree.root;
+        int leftHeight = leftTree.height;
+        int rightHeight = rightTree.height;
+        pivot.parent = null;
+
+        if (leftHeight == rightHeight) {
+            pivot.color = Color.BLACK;
+            link(pivot, left, right);
+            return new Subtree<>(pivot, leftHeight + 1);
+        }
+
+        RedBlackTree<T> taller = new RedBlackTree<T>(aggregate);
+        Node<T> parent = null;
+        Node<T> current;
+        int height;
+
+        if (leftHeight > rightHeight) {
+            // Walk down the right spine of left to a black node of right's black-height
+            taller.root = left;
+            current = left;
+            height = leftHeight;
+            while (current != null && (current.color == Color.RED || height > rightHeight)) {
+                if (current.color == Color.BLACK) {
+                    height--;
+                }
+                parent = current;
+                current = current.right;
+            }
+            link(pivot, current, right);
+            parent.right = pivot;
+        } else {
+            // Mirror case: walk down the left spine of right
+            taller.root = right;
+            current = right;
+            height = rightHeight;
+            while (current != null && (current.color == Color.RED || height > leftHeight)) {
+                if (current.color == Color.BLACK) {
+                    height--;
+                }
+                parent = current;
+                current = current.left;
+            }
+            link(pivot, left, current);
+            parent.left = pivot;
+        }
+
+        pivot.parent = parent;
+        refreshUpward(parent);
+        pivot.color = Color.RED;
+        taller.fixRedChain(pivot);
+
+        // A red root left by the repair turns black and adds one level
+        int joinedHeight = Math.max(leftHeight, rightHeight);
+        if (taller.root.color == Color.RED) {
+            taller.root.color = Color.BLACK;
+            joinedHeight++;
+        }
+        return new Subtree<>(taller.root, joinedHeight);
+    }
+
+    // Helper method to join two detached subtrees without a pivot: the
+    // minimum of the right tree is split off and used as the pivot
+    private Subtree<T> joinWithoutPivot(Subtree<T> left, Subtree<T> right) {
+        if (left.root == null) {
+            return right;
+        }
+        if (right.root == null) {
+            return left;
+        }
+
+        SplitNodes<T> parts = splitNodes(right.root, right.height, findMinimum(right.root).data);
+        return joinNodes(left, parts.match, parts.upper);
+    }
+
+    // Helper method to make node the parent of left and right and recount its size
+    private void link(Node<T> node, Node<T> left, Node<T> right) {
+        node.left = left;
+        node.right = right;
+        if (left != null) {
+            left.parent = node;
+        }
+        if (right != null) {
+            right.parent = node;
+        }
+        refresh(node);
+    }
+
+    // Helper method to cut a subtree loose as a standalone tree; a red root
+    // turns black, which keeps every path's black count equal
+    private static <T> Node<T> detach(Node<T> node) {
+        if (node != null) {
+            node.parent = null;
+            node.color = Color.BLACK;
+        }
+        return node;
+    }
+
+    // Helper method to cut a tree's root loose together with its black-height
+    private static <T> Subtree<T> measure(Node<T> root) {
+        int height = blackHeight(root);
+        return new Subtree<>(detach(root), height);
+    }
+
+    // Helper method to cut loose a child of a black node of black-height
+    // height; a red child turns black and so keeps its parent's height
+    private static <T> Subtree<T> detachChild(Node<T> child, int height) {
+        int childHeight = child != null && child.color == Color.RED ? height : height - 1;
+        return new Subtree<>(detach(child), childHeight);
+    }
+
+    // Black nodes on the path from node down to a leaf, node included
+    private static int blackHeight(Node<?> node) {
+        int height = 0;
+        while (node != null) {
+            if (node.color == Color.BLACK) {
+                height++;
+            }
+            node = node.left;
+        }
+        return height;
+    }
+
+    // Same count taken down the rightmost path
+    private static int rightBlackHeight(Node<?> node) {
+        int height = 0;
+        while (node != null) {
+            if (node.color == Color.BLACK) {
+                height++;
+            }
+            node = node.right;
+        }
+        return height;
+    }
+
+    private RedBlackTree<T> wrap(Node<T> root) {
+        RedBlackTree<T> tree = new RedBlackTree<T>(aggregate);
+        tree.root = detach(root);
+        return tree;
+    }
+
+    private class TreeSpliterator implements Spliterator<T> {
+        private Node<T> next; // Node at index, looked up lazily after a split
+        private int index;
+        private final int fence;
+
+        TreeSpliterator(Node<T> next, int index, int fence) {
+            this.next = next;
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (index >= fence) {
+                return false;
+            }
+            if (next == null) {
+                next = select(index);
+            }
+            T data = next.data;
+            next = (++index < fence) ? successor(next) : null;
+            action.accept(data);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            while (tryAdvance(action)) {
+                // Each step is a successor() walk
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            if (fence - index < 2) {
+                return null;
+            }
+
+            // Highest node whose rank lies strictly inside (index, fence)
+            Node<T> current = root;
+            int base = 0;
+            while (current != null) {
+                int rank = base + sizeOf(current.left);
+                if (rank <= index) {
+                    base = rank + 1;
+                    current = current.right;
+                } else if (rank >= fence) {
+                    current = current.left;
+                } else {
+                    TreeSpliterator prefix = new TreeSpliterator(next, index, rank);
+                    next = current;
+                    index = rank;
+                    return prefix;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SORTED | DISTINCT | NONNULL | SIZED | SUBSIZED;
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            return null; // Natural ordering
+        }
+    }
+
+    private static final class BuildTask <T extends Comparable<T>> extends RecursiveTask<Node<T>> {
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] keys;
+        private final int lo;
+        private final int hi;
+        private final int level;
+        private final int redLevel;
+
+        BuildTask(Object[] keys, int lo, int hi, int level, int redLevel) {
+            this.keys = keys;
+            this.lo = lo;
+            this.hi = hi;
+            this.level = level;
+            this.redLevel = redLevel;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected Node<T> compute() {
+            if (hi - lo < PARALLEL_THRESHOLD) {
+                return buildFromSorted(keys, lo, hi, level, redLevel);
+            }
+
+            int mid = (lo + hi) >>> 1;
+            BuildTask<T> leftTask = new BuildTask<>(keys, lo, mid - 1, level + 1, redLevel);
+            leftTask.fork();
+            Node<T> right = new BuildTask<T>(keys, mid + 1, hi, level + 1, redLevel).compute();
+            Node<T> left = leftTask.join();
+
+            Node<T> node = new Node<>((T) keys[mid]);
+            node.color = (level == redLevel) ? Color.RED : Color.BLACK;
+            node.size = hi - lo + 1;
+            node.left = left;
+            if (left != null) {
+                left.parent = node;
+            }
+            node.right = right;
+            if (right != null) {
+                right.parent = node;
+            }
+            return node;
+        }
+    }
+
+    private static final class ReduceTask <T, R> extends RecursiveTask<R> {
+        private static final long serialVersionUID = 1L;
+
+        private final Node<T> node;
+        private final R identity;
+        private final Function<? super Node<T>, ? extends R> mapper;
+        private final BinaryOperator<R> combiner;
+
+        ReduceTask(Node<T> node, R identity, Function<? super Node<T>, ? extends R> mapper, BinaryOperator<R> combiner) {
+            this.node = node;
+            this.identity = identity;
+            this.mapper = mapper;
+            this.combiner = combiner;
+        }
+
+        @Override
+        protected R compute() {
+            if (sizeOf(node) < PARALLEL_THRESHOLD) {
+                return reduceSequential(node);
+            }
+
+            ReduceTask<T, R> leftTask = new ReduceTask<>(node.left, identity, mapper, combiner);
+            leftTask.fork();
+            R right = new ReduceTask<>(node.right, identity, mapper, combiner).compute();
+            R left = leftTask.join();
+            return combiner.apply(combiner.apply(left, mapper.apply(node)), right);
+        }
+
+        private R reduceSequential(Node<T> subtree) {
+            if (subtree == null) {
+                return identity;
+            }
+            R left = reduceSequential(subtree.left);
+            R middle = mapper.apply(subtree);
+            return combiner.apply(combiner.apply(left, middle), reduceSequential(subtree.right));
+        }
+    }
+
+    private static final class HeightTask extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private final Node<?> node;
+
+        HeightTask(Node<?> node) {
+            this.node = node;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (sizeOf(node) < PARALLEL_THRESHOLD) {
+                return heightSequential(node);
+            }
+
+            HeightTask leftTask = new HeightTask(node.left);
+            leftTask.fork();
+            int right = new HeightTask(node.right).compute();
+            return 1 + Math.max(leftTask.join(), right);
+        }
+
+        private static int heightSequential(Node<?> subtree) {
+            if (subtree == null) {
+                return 0;
+            }
+            return 1 + Math.max(heightSequential(subtree.left), heightSequential(subtree.right));
+        }
+    }
+
+    // Helper method to build a perfectly balanced subtree from keys[lo..hi].
+    // All levels above redLevel are full and black; the partial bottom level
+    // is red, so every path carries the same number of black nodes.
+    @SuppressWarnings("unchecked")
+    private static <T extends Comparable<T>> Node<T> buildFromSorted(Object[] keys, int lo, int hi,
+                                                                     int level, int redLevel) {
+        if (lo > hi) {
+            return null;
+        }
+
+        int mid = (lo + hi) >>> 1;
+        Node<T> node = new Node<>((T) keys[mid]);
+        node.color = (level == redLevel) ? Color.RED : Color.BLACK;
+        node.size = hi - lo + 1;
+
+        node.left = buildFromSorted(keys, lo, mid - 1, level + 1, redLevel);
+        if (node.left != null) {
+            node.left.parent = node;
+        }
+        node.right = buildFromSorted(keys, mid + 1, hi, level + 1, redLevel);
+        if (node.right != null) {
+            node.right.parent = node;
+        }
+        return node;
+    }
+
+    // Helper method to find the depth of the (possibly partial) bottom level
+    private static int computeRedLevel(int count) {
+        int level = 0;
+        for (int m = count - 1; m >= 0; m = m / 2 - 1) {
+            level++;
+        }
+        return level;
+    }
+
+    // Helper method to read a subtree size, treating null as empty
+    private static int sizeOf(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    // Helper method to recompute a node's size and aggregate from its children
+    private void refresh(Node<T> node) {
+        node.size = sizeOf(node.left) + sizeOf(node.right) + 1;
+        if (aggregate != null) {
+            Object value = aggregate.of(node.data);
+            if (node.left != null) {
+                value = aggregate.combine(node.left.aggregate, value);
+            }
+            if (node.right != null) {
+                value = aggregate.combine(value, node.right.aggregate);
+            }
+            node.aggregate = value;
+        }
+    }
+
+    // Helper method to refresh node and every ancestor after a change below them
+    private void refreshUpward(Node<T> node) {
+        while (node != null) {
+            refresh(node);
+            node = node.parent;
+        }
+    }
+
+    // Helper method to read a subtree aggregate, treating null as empty
+    private Object aggregateOf(Node<T> node) {
+        return node == null ? aggregate.identity() : node.aggregate;
+    }
+
+    private void requireAggregate() {
+        if (aggregate == null) {
+            throw new IllegalStateException("Tree was created without an aggregate");
+        }
+    }
+
+    // Trees merged into one must use equal aggregates (see LongAggregate)
+    private static void requireSameAggregate(RedBlackTree<?> a, RedBlackTree<?> b) {
+        if (!Objects.equals(a.aggregate, b.aggregate)) {
+            throw new IllegalArgumentException("Trees use different aggregates");
+        }
+    }
+
+    // Helper method to find minimum node in a subtree
+    private Node<T> findMinimum(Node<T> node) {
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node;
+    }
+
+    // Helper method to find maximum node in a subtree
+    private Node<T> findMaximum(Node<T> node) {
+        while (node.right != null) {
+            node = node.right;
+        }
+        return node;
+    }
+
+    // Method to fix Red-Black Tree violations after deletion.
+    // parent is passed separately because x may be null (a removed black leaf).
+    private void deleteFixup(Node<T> x, Node<T> parent) {
+        while (x != root && (x == null || x.color == Color.BLACK)) {
+            if (x == parent.left) {
+                Node<T> sibling = parent.right;
+                
+                // Case 1: Sibling is red
+                if (sibling != null && sibling.color == Color.RED) {
+                    TreeMetrics.deleteCase(1);
+                    setColor(sibling, Color.BLACK);
+                    setColor(parent, Color.RED);
+                    rotateLeft(parent);
+                    sibling = parent.right;
+                }
+                
+                // Case 2: Sibling's children are both black
+                if (sibling != null && 
+                    (sibling.left == null || sibling.left.color == Color.BLACK) &&
+                    (sibling.right == null || sibling.right.color == Color.BLACK)) {
+                    TreeMetrics.deleteCase(2);
+                    setColor(sibling, Color.RED);
+                    x = parent;
+                    parent = x.parent;
+                } else if (sibling != null) {
+                    // Case 3: Sibling's right child is black
+                    if (sibling.right == null || sibling.right.color == Color.BLACK) {
+                        TreeMetrics.deleteCase(3);
+                        if (sibling.left != null) {
+                            setColor(sibling.left, Color.BLACK);
+                        }
+                        setColor(sibling, Color.RED);
+                        rotateRight(sibling);
+                        sibling = parent.right;
+                    }
+                    
+                    // Case 4: Sibling's right child is red
+                    if (sibling != null) {
+                        TreeMetrics.deleteCase(4);
+                        setColor(sibling, parent.color);
+                        setColor(parent, Color.BLACK);
+                        if (sibling.right != null) {
+                            setColor(sibling.right, Color.BLACK);
+                        }
+                        rotateLeft(parent);
+                        x = root;
+                    }
+                }
+            } else {
+                // Mirror cases for when x is a right child
+                Node<T> sibling = parent.left;
+                
+                if (sibling != null && sibling.color == Color.RED) {
+                    TreeMetrics.deleteCase(1);
+                    setColor(sibling, Color.BLACK);
+                    setColor(parent, Color.RED);
+                    rotateRight(parent);
+                    sibling = parent.left;
+                }
+                
+                if (sibling != null &&
+                    (sibling.right == null || sibling.right.color == Color.BLACK) &&
+                    (sibling.left == null || sibling.left.color == Color.BLACK)) {
+                    TreeMetrics.deleteCase(2);
+                    setColor(sibling, Color.RED);
+                    x = parent;
+                    parent = x.parent;
+                } else if (sibling != null) {
+                    if (sibling.left == null || sibling.left.color == Color.BLACK) {
+                        TreeMetrics.deleteCase(3);
+                        if (sibling.right != null) {
+                            setColor(sibling.right, Color.BLACK);
+                        }
+                        setColor(sibling, Color.RED);
+                        rotateLeft(sibling);
+                        sibling = parent.left;
+                    }
+                    
+                    if (sibling != null) {
+                        TreeMetrics.deleteCase(4);
+                        setColor(sibling, parent.color);
+                        setColor(parent, Color.BLACK);
+                        if (sibling.left != null) {
+                            setColor(sibling.left, Color.BLACK);
+                        }
+                        rotateRight(parent);
+                        x = root;
+                    }
+                }
+            }
+        }
+        
+        if (x != null) {
+            setColor(x, Color.BLACK);
+        }
+    }
+
+}
\ No newline at end of file
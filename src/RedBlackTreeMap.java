@@ -0,0 +1,935 @@
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+// Sorted map on top of RedBlackTree, ordered by the keys' natural order.
+// Each entry is one MapNode holding both key and value, so no side table is
+// needed: get, put, compute and merge make a single descent, and replacing
+// the value of an existing key changes no links or colors.
+//
+// Null keys are rejected, null values are allowed. Views (subMap, headMap,
+// tailMap, descendingMap, key and entry sets) write through to this map.
+// Iterators are not fail-fast; removing through an iterator is safe.
+public class RedBlackTreeMap <K extends Comparable<K>, V> extends AbstractMap<K, V> implements NavigableMap<K, V> {
+    private final EntryTree<K, V> tree = new EntryTree<>();
+
+    public RedBlackTreeMap() {
+    }
+
+    public RedBlackTreeMap(Map<? extends K, ? extends V> map) {
+        putAll(map);
+    }
+
+    @Override
+    public int size() {
+        return tree.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return tree.root == null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return getEntry(key) != null;
+    }
+
+    @Override
+    public V get(Object key) {
+        MapNode<K, V> entry = getEntry(key);
+        return entry == null ? null : entry.value;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        return entryFor(key).setValue(value);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        MapNode<K, V> entry = entryFor(key);
+        V oldValue = entry.value;
+        if (oldValue == null) {
+            entry.value = value;
+        }
+        return oldValue;
+    }
+
+    @Override
+    public V replace(K key, V value) {
+        MapNode<K, V> entry = getEntry(key);
+        return entry == null ? null : entry.setValue(value);
+    }
+
+    @Override
+    public V remove(Object key) {
+        MapNode<K, V> entry = getEntry(key);
+        if (entry == null) {
+            return null;
+        }
+        tree.deleteNode(entry);
+        return entry.value;
+    }
+
+    @Override
+    public void clear() {
+        tree.clear();
+    }
+
+    // The compute and merge family call the function before linking in a
+    // new entry, so while it runs the map looks exactly as before. The
+    // absent key's attachment point is remembered from the one descent; if
+    // the function changes the map's structure, that point is stale and
+    // ConcurrentModificationException is thrown, as TreeMap does.
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+        Node<K> found = tree.findOrParent(Objects.requireNonNull(key));
+        MapNode<K, V> entry = matching(found, key);
+        if (entry != null && entry.value != null) {
+            return entry.value;
+        }
+
+        int expectedModCount = tree.modCount;
+        V value = mappingFunction.apply(key);
+        checkModCount(expectedModCount);
+        if (value == null) {
+            return null; // No mapping is recorded
+        }
+        store(entry, found, key, value);
+        return value;
+    }
+
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        MapNode<K, V> entry = getEntry(key);
+        if (entry == null || entry.value == null) {
+            return null;
+        }
+
+        int expectedModCount = tree.modCount;
+        V value = remappingFunction.apply(key, entry.value);
+        checkModCount(expectedModCount);
+        if (value == null) {
+            tree.deleteNode(entry);
+            return null;
+        }
+        entry.value = value;
+        return value;
+    }
+
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        Node<K> found = tree.findOrParent(Objects.requireNonNull(key));
+        MapNode<K, V> entry = matching(found, key);
+
+        int expectedModCount = tree.modCount;
+        V value = remappingFunction.apply(key, entry == null ? null : entry.value);
+        checkModCount(expectedModCount);
+        if (value == null) {
+            if (entry != null) {
+                tree.deleteNode(entry);
+            }
+            return null;
+        }
+        store(entry, found, key, value);
+        return value;
+    }
+
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(value);
+        Objects.requireNonNull(remappingFunction);
+        MapNode<K, V> entry = entryFor(key);
+        if (entry.value == null) {
+            entry.value = value; // New key, or key mapped to null
+            return value;
+        }
+
+        int expectedModCount = tree.modCount;
+        V merged = remappingFunction.apply(entry.value, value);
+        checkModCount(expectedModCount);
+        if (merged == null) {
+            tree.deleteNode(entry);
+            return null;
+        }
+        entry.value = merged;
+        return merged;
+    }
+
+    // Navigation. Entries handed out here are snapshots and do not support
+    // setValue; entries reached through entrySet() write through.
+
+    @Override
+    public Map.Entry<K, V> lowerEntry(K key) {
+        return export(tree.floorNode(key, false));
+    }
+
+    @Override
+    public K lowerKey(K key) {
+        return keyOf(tree.floorNode(key, false));
+    }
+
+    @Override
+    public Map.Entry<K, V> floorEntry(K key) {
+        return export(tree.floorNode(key, true));
+    }
+
+    @Override
+    public K floorKey(K key) {
+        return keyOf(tree.floorNode(key, true));
+    }
+
+    @Override
+    public Map.Entry<K, V> ceilingEntry(K key) {
+        return export(tree.ceilingNode(key, true));
+    }
+
+    @Override
+    public K ceilingKey(K key) {
+        return keyOf(tree.ceilingNode(key, true));
+    }
+
+    @Override
+    public Map.Entry<K, V> higherEntry(K key) {
+        return export(tree.ceilingNode(key, false));
+    }
+
+    @Override
+    public K higherKey(K key) {
+        return keyOf(tree.ceilingNode(key, false));
+    }
+
+    @Override
+    public Map.Entry<K, V> firstEntry() {
+        return export(tree.firstNode());
+    }
+
+    @Override
+    public Map.Entry<K, V> lastEntry() {
+        return export(tree.lastNode());
+    }
+
+    @Override
+    public Map.Entry<K, V> pollFirstEntry() {
+        return poll(tree.firstNode());
+    }
+
+    @Override
+    public Map.Entry<K, V> pollLastEntry() {
+        return poll(tree.lastNode());
+    }
+
+    @Override
+    public K firstKey() {
+        return requireKey(tree.firstNode());
+    }
+
+    @Override
+    public K lastKey() {
+        return requireKey(tree.lastNode());
+    }
+
+    @Override
+    public Comparator<? super K> comparator() {
+        return null; // Natural ordering
+    }
+
+    // Views
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return new EntrySet(null);
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return navigableKeySet();
+    }
+
+    @Override
+    public NavigableSet<K> navigableKeySet() {
+        return new KeySet<>(this);
+    }
+
+    @Override
+    public NavigableSet<K> descendingKeySet() {
+        return descendingMap().navigableKeySet();
+    }
+
+    @Override
+    public NavigableMap<K, V> descendingMap() {
+        return new SubMap(true, null, false, true, null, false, true);
+    }
+
+    @Override
+    public NavigableMap<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+        if (fromKey.compareTo(toKey) > 0) {
+            throw new IllegalArgumentException("fromKey > toKey: " + fromKey + " > " + toKey);
+        }
+        return new SubMap(false, fromKey, fromInclusive, false, toKey, toInclusive, false);
+    }
+
+    @Override
+    public NavigableMap<K, V> headMap(K toKey, boolean inclusive) {
+        return new SubMap(true, null, false, false, Objects.requireNonNull(toKey), inclusive, false);
+    }
+
+    @Override
+    public NavigableMap<K, V> tailMap(K fromKey, boolean inclusive) {
+        return new SubMap(false, Objects.requireNonNull(fromKey), inclusive, true, null, false, false);
+    }
+
+    @Override
+    public SortedMap<K, V> subMap(K fromKey, K toKey) {
+        return subMap(fromKey, true, toKey, false);
+    }
+
+    @Override
+    public SortedMap<K, V> headMap(K toKey) {
+        return headMap(toKey, false);
+    }
+
+    @Override
+    public SortedMap<K, V> tailMap(K fromKey) {
+        return tailMap(fromKey, true);
+    }
+
+    // Helper method to look up the entry for a key of unchecked type
+    @SuppressWarnings("unchecked")
+    private MapNode<K, V> getEntry(Object key) {
+        return (MapNode<K, V>) tree.search((K) Objects.requireNonNull(key));
+    }
+
+    // Helper method to find or add the entry for key in one descent; a new
+    // entry starts out with a null value
+    @SuppressWarnings("unchecked")
+    private MapNode<K, V> entryFor(K key) {
+        return (MapNode<K, V>) tree.findOrInsert(Objects.requireNonNull(key));
+    }
+
+    // Helper method to pick the entry for key out of a findOrParent result
+    @SuppressWarnings("unchecked")
+    private static <K extends Comparable<K>, V> MapNode<K, V> matching(Node<K> found, K key) {
+        return found != null && key.compareTo(found.data) == 0 ? (MapNode<K, V>) found : null;
+    }
+
+    // Helper method to set the value of entry, or of a new entry for key
+    // hung below parent when there is none yet
+    @SuppressWarnings("unchecked")
+    private void store(MapNode<K, V> entry, Node<K> parent, K key, V value) {
+        if (entry == null) {
+            entry = (MapNode<K, V>) tree.insertBelowParent(parent, key);
+        }
+        entry.value = value;
+    }
+
+    private void checkModCount(int expectedModCount) {
+        if (tree.modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    private Map.Entry<K, V> poll(Node<K> node) {
+        Map.Entry<K, V> entry = export(node);
+        if (node != null) {
+            tree.deleteNode(node);
+        }
+        return entry;
+    }
+
+    // Helper method to make a read-only copy of an entry, or pass on null
+    @SuppressWarnings("unchecked")
+    private static <K, V> Map.Entry<K, V> export(Node<K> node) {
+        return node == null ? null : new AbstractMap.SimpleImmutableEntry<>((MapNode<K, V>) node);
+    }
+
+    private static <K> K keyOf(Node<K> node) {
+        return node == null ? null : node.data;
+    }
+
+    private static <K> K requireKey(Node<K> node) {
+        if (node == null) {
+            throw new NoSuchElementException();
+        }
+        return node.data;
+    }
+
+    // Tree whose nodes are map entries
+    private static final class EntryTree <K extends Comparable<K>, V> extends RedBlackTree<K> {
+        @Override
+        Node<K> createNode(K key) {
+            return new MapNode<K, V>(key);
+        }
+    }
+
+    // Walks entries in key order (or reverse), stopping at the first node
+    // outside the view's range
+    private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+        private final SubMap view; // null for the whole map
+        private final boolean descending;
+        private Node<K> next;
+        private Node<K> lastReturned;
+
+        EntryIterator(SubMap view, Node<K> first, boolean descending) {
+            this.view = view;
+            this.descending = descending;
+            this.next = first;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K, V> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = next;
+            Node<K> following = descending ? RedBlackTree.predecessor(next) : RedBlackTree.successor(next);
+            next = following != null && (view == null || view.inRange(following.data)) ? following : null;
+            return (MapNode<K, V>) lastReturned;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            tree.deleteNode(lastReturned); // Other nodes keep their place, so next stays valid
+            lastReturned = null;
+        }
+    }
+
+    // Entries of the whole map or of a view; iteration hands out the live
+    // nodes, so setValue writes through
+    private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+        private final SubMap view; // null for the whole map
+
+        EntrySet(SubMap view) {
+            this.view = view;
+        }
+
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            if (view == null) {
+                return new EntryIterator(null, tree.firstNode(), false);
+            }
+            return new EntryIterator(view, view.lowest(), view.descending);
+        }
+
+        @Override
+        public int size() {
+            return view == null ? tree.size() : view.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            MapNode<K, V> entry = find(o);
+            return entry != null && Objects.equals(entry.value, ((Map.Entry<?, ?>) o).getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            tree.deleteNode(find(o));
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            if (view == null) {
+                tree.clear();
+            } else {
+                super.clear();
+            }
+        }
+
+        // Helper method to find the live entry with the same key as o inside this view
+        @SuppressWarnings("unchecked")
+        private MapNode<K, V> find(Object o) {
+            if (!(o instanceof Map.Entry) || ((Map.Entry<?, ?>) o).getKey() == null) {
+                return null;
+            }
+            Object key = ((Map.Entry<?, ?>) o).getKey();
+            if (view != null && !view.inRange((K) key)) {
+                return null;
+            }
+            return getEntry(key);
+        }
+    }
+
+    // Range and/or reversed view of this map. Bounds are kept in ascending
+    // key order; "lowest"/"highest" and the navigation methods translate
+    // them for descending views.
+    private final class SubMap extends AbstractMap<K, V> implements NavigableMap<K, V> {
+        private final boolean fromStart;
+        private final K low;
+        private final boolean lowInclusive;
+        private final boolean toEnd;
+        private final K high;
+        private final boolean highInclusive;
+        private final boolean descending;
+
+        SubMap(boolean fromStart, K low, boolean lowInclusive,
+               boolean toEnd, K high, boolean highInclusive, boolean descending) {
+            this.fromStart = fromStart;
+            this.low = low;
+            this.lowInclusive = lowInclusive;
+            this.toEnd = toEnd;
+            this.high = high;
+            this.highInclusive = highInclusive;
+            this.descending = descending;
+        }
+
+        private boolean tooLow(K key) {
+            if (fromStart) {
+                return false;
+            }
+            int comparison = key.compareTo(low);
+            return comparison < 0 || (comparison == 0 && !lowInclusive);
+        }
+
+        private boolean tooHigh(K key) {
+            if (toEnd) {
+                return false;
+            }
+            int comparison = key.compareTo(high);
+            return comparison > 0 || (comparison == 0 && !highInclusive);
+        }
+
+        boolean inRange(K key) {
+            return !tooLow(key) && !tooHigh(key);
+        }
+
+        // Like inRange, but an excluded bound itself still counts, as needed
+        // when checking the bounds of a nested view
+        private boolean inClosedRange(K key) {
+            return (fromStart || key.compareTo(low) >= 0) && (toEnd || key.compareTo(high) <= 0);
+        }
+
+        private boolean inRange(K key, boolean inclusive) {
+            return inclusive ? inRange(key) : inClosedRange(key);
+        }
+
+        // Navigation in ascending key order, clipped to the range
+
+        private Node<K> absLowest() {
+            Node<K> node = fromStart ? tree.firstNode() : tree.ceilingNode(low, lowInclusive);
+            return node == null || tooHigh(node.data) ? null : node;
+        }
+
+        private Node<K> absHighest() {
+            Node<K> node = toEnd ? tree.lastNode() : tree.floorNode(high, highInclusive);
+            return node == null || tooLow(node.data) ? null : node;
+        }
+
+        private Node<K> absCeiling(K key, boolean inclusive) {
+            if (tooLow(key)) {
+                return absLowest();
+            }
+            Node<K> node = tree.ceilingNode(key, inclusive);
+            return node == null || tooHigh(node.data) ? null : node;
+        }
+
+        private Node<K> absFloor(K key, boolean inclusive) {
+            if (tooHigh(key)) {
+                return absHighest();
+            }
+            Node<K> node = tree.floorNode(key, inclusive);
+            return node == null || tooLow(node.data) ? null : node;
+        }
+
+        // Navigation in this view's own order
+
+        Node<K> lowest() {
+            return descending ? absHighest() : absLowest();
+        }
+
+        private Node<K> highest() {
+            return descending ? absLowest() : absHighest();
+        }
+
+        private Node<K> ceiling(K key, boolean inclusive) {
+            return descending ? absFloor(key, inclusive) : absCeiling(key, inclusive);
+        }
+
+        private Node<K> floor(K key, boolean inclusive) {
+            return descending ? absCeiling(key, inclusive) : absFloor(key, inclusive);
+        }
+
+        // Counted from ranks, so O(log n) rather than a walk over the range
+        @Override
+        public int size() {
+            Node<K> first = absLowest();
+            if (first == null) {
+                return 0;
+            }
+            Node<K> last = absHighest();
+            return tree.rank(last.data) - tree.rank(first.data) + 1;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return absLowest() == null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean containsKey(Object key) {
+            return inRange((K) Objects.requireNonNull(key)) && RedBlackTreeMap.this.containsKey(key);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V get(Object key) {
+            return inRange((K) Objects.requireNonNull(key)) ? RedBlackTreeMap.this.get(key) : null;
+        }
+
+        @Override
+        public V put(K key, V value) {
+            if (!inRange(key)) {
+                throw new IllegalArgumentException("Key out of range: " + key);
+            }
+            return RedBlackTreeMap.this.put(key, value);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V remove(Object key) {
+            return inRange((K) Objects.requireNonNull(key)) ? RedBlackTreeMap.this.remove(key) : null;
+        }
+
+        @Override
+        public Map.Entry<K, V> lowerEntry(K key) {
+            return export(floor(key, false));
+        }
+
+        @Override
+        public K lowerKey(K key) {
+            return keyOf(floor(key, false));
+        }
+
+        @Override
+        public Map.Entry<K, V> floorEntry(K key) {
+            return export(floor(key, true));
+        }
+
+        @Override
+        public K floorKey(K key) {
+            return keyOf(floor(key, true));
+        }
+
+        @Override
+        public Map.Entry<K, V> ceilingEntry(K key) {
+            return export(ceiling(key, true));
+        }
+
+        @Override
+        public K ceilingKey(K key) {
+            return keyOf(ceiling(key, true));
+        }
+
+        @Override
+        public Map.Entry<K, V> higherEntry(K key) {
+            return export(ceiling(key, false));
+        }
+
+        @Override
+        public K higherKey(K key) {
+            return keyOf(ceiling(key, false));
+        }
+
+        @Override
+        public Map.Entry<K, V> firstEntry() {
+            return export(lowest());
+        }
+
+        @Override
+        public Map.Entry<K, V> lastEntry() {
+            return export(highest());
+        }
+
+        @Override
+        public Map.Entry<K, V> pollFirstEntry() {
+            return poll(lowest());
+        }
+
+        @Override
+        public Map.Entry<K, V> pollLastEntry() {
+            return poll(highest());
+        }
+
+        @Override
+        public K firstKey() {
+            return requireKey(lowest());
+        }
+
+        @Override
+        public K lastKey() {
+            return requireKey(highest());
+        }
+
+        @Override
+        public Comparator<? super K> comparator() {
+            return descending ? Collections.reverseOrder() : null;
+        }
+
+        @Override
+        public Set<Map.Entry<K, V>> entrySet() {
+            return new EntrySet(this);
+        }
+
+        @Override
+        public Set<K> keySet() {
+            return navigableKeySet();
+        }
+
+        @Override
+        public NavigableSet<K> navigableKeySet() {
+            return new KeySet<>(this);
+        }
+
+        @Override
+        public NavigableSet<K> descendingKeySet() {
+            return descendingMap().navigableKeySet();
+        }
+
+        @Override
+        public NavigableMap<K, V> descendingMap() {
+            return new SubMap(fromStart, low, lowInclusive, toEnd, high, highInclusive, !descending);
+        }
+
+        @Override
+        public NavigableMap<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+            Objects.requireNonNull(fromKey);
+            Objects.requireNonNull(toKey);
+            if (descending) {
+                return view(toKey, toInclusive, fromKey, fromInclusive);
+            }
+            return view(fromKey, fromInclusive, toKey, toInclusive);
+        }
+
+        @Override
+        public NavigableMap<K, V> headMap(K toKey, boolean inclusive) {
+            if (descending) {
+                return view(Objects.requireNonNull(toKey), inclusive, null, false);
+            }
+            return view(null, false, Objects.requireNonNull(toKey), inclusive);
+        }
+
+        @Override
+        public NavigableMap<K, V> tailMap(K fromKey, boolean inclusive) {
+            if (descending) {
+                return view(null, false, Objects.requireNonNull(fromKey), inclusive);
+            }
+            return view(Objects.requireNonNull(fromKey), inclusive, null, false);
+        }
+
+        @Override
+        public SortedMap<K, V> subMap(K fromKey, K toKey) {
+            return subMap(fromKey, true, toKey, false);
+        }
+
+        @Override
+        public SortedMap<K, V> headMap(K toKey) {
+            return headMap(toKey, false);
+        }
+
+        @Override
+        public SortedMap<K, V> tailMap(K fromKey) {
+            return tailMap(fromKey, true);
+        }
+
+        // Helper method to narrow this view to new ascending bounds, where
+        // a null bound keeps the current one
+        private SubMap view(K newLow, boolean newLowInclusive, K newHigh, boolean newHighInclusive) {
+            if (newLow != null && newHigh != null && newLow.compareTo(newHigh) > 0) {
+                throw new IllegalArgumentException("fromKey > toKey");
+            }
+            if ((newLow != null && !inRange(newLow, newLowInclusive)) ||
+                (newHigh != null && !inRange(newHigh, newHighInclusive))) {
+                throw new IllegalArgumentException("Bound out of range");
+            }
+            if (newLow == null) {
+                newLow = low;
+                newLowInclusive = lowInclusive;
+            }
+            if (newHigh == null) {
+                newHigh = high;
+                newHighInclusive = highInclusive;
+            }
+            return new SubMap(newLow == null, newLow, newLowInclusive,
+                    newHigh == null, newHigh, newHighInclusive, descending);
+        }
+    }
+
+    // Key view backed by a map or one of its views
+    private static final class KeySet <K> extends AbstractSet<K> implements NavigableSet<K> {
+        private final NavigableMap<K, ?> map;
+
+        KeySet(NavigableMap<K, ?> map) {
+            this.map = map;
+        }
+
+        @Override
+        public Iterator<K> iterator() {
+            final Iterator<? extends Map.Entry<K, ?>> entries = map.entrySet().iterator();
+            return new Iterator<K>() {
+                @Override
+                public boolean hasNext() {
+                    return entries.hasNext();
+                }
+
+                @Override
+                public K next() {
+                    return entries.next().getKey();
+                }
+
+                @Override
+                public void remove() {
+                    entries.remove();
+                }
+            };
+        }
+
+        @Override
+        public Iterator<K> descendingIterator() {
+            return descendingSet().iterator();
+        }
+
+        @Override
+        public int size() {
+            return map.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return map.isEmpty();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return map.containsKey(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!map.containsKey(o)) {
+                return false;
+            }
+            map.remove(o);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            map.clear();
+        }
+
+        @Override
+        public K lower(K key) {
+            return map.lowerKey(key);
+        }
+
+        @Override
+        public K floor(K key) {
+            return map.floorKey(key);
+        }
+
+        @Override
+        public K ceiling(K key) {
+            return map.ceilingKey(key);
+        }
+
+        @Override
+        public K higher(K key) {
+            return map.higherKey(key);
+        }
+
+        @Override
+        public K first() {
+            return map.firstKey();
+        }
+
+        @Override
+        public K last() {
+            return map.lastKey();
+        }
+
+        @Override
+        public K pollFirst() {
+            Map.Entry<K, ?> entry = map.pollFirstEntry();
+            return entry == null ? null : entry.getKey();
+        }
+
+        @Override
+        public K pollLast() {
+            Map.Entry<K, ?> entry = map.pollLastEntry();
+            return entry == null ? null : entry.getKey();
+        }
+
+        @Override
+        public Comparator<? super K> comparator() {
+            return map.comparator();
+        }
+
+        @Override
+        public NavigableSet<K> descendingSet() {
+            return new KeySet<>(map.descendingMap());
+        }
+
+        @Override
+        public NavigableSet<K> subSet(K fromElement, boolean fromInclusive, K toElement, boolean toInclusive) {
+            return new KeySet<>(map.subMap(fromElement, fromInclusive, toElement, toInclusive));
+        }
+
+        @Override
+        public NavigableSet<K> headSet(K toElement, boolean inclusive) {
+            return new KeySet<>(map.headMap(toElement, inclusive));
+        }
+
+        @Override
+        public NavigableSet<K> tailSet(K fromElement, boolean inclusive) {
+            return new KeySet<>(map.tailMap(fromElement, inclusive));
+        }
+
+        @Override
+        public SortedSet<K> subSet(K fromElement, K toElement) {
+            return subSet(fromElement, true, toElement, false);
+        }
+
+        @Override
+        public SortedSet<K> headSet(K toElement) {
+            return headSet(toElement, false);
+        }
+
+        @Override
+        public SortedSet<K> tailSet(K fromElement) {
+            return tailSet(fromElement, true);
+        }
+    }
+
+}
\ No newline at end of file
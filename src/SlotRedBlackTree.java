@@ -0,0 +1,443 @@
+import java.util.Arrays;
+
+// Structure shared by the primitive-key trees (IntRedBlackTree,
+// LongRedBlackTree). Nodes live in parallel arrays and are addressed by int
+// slot indices; this class owns the links, colors, free-list, rebalancing
+// and compaction, and a subclass adds the key array and the descents that
+// compare keys. The color needs no array of its own: it is packed into the
+// sign bit of the parent link.
+public abstract class SlotRedBlackTree {
+    public static final int NIL = -1; // Slot index standing for "no node"
+
+    static final int DEFAULT_CAPACITY = 16;
+    private static final int RED_BIT = 0x80000000;  // Color, packed into the sign bit of parent[]
+    private static final int SLOT_MASK = 0x7FFFFFFF; // Parent slot bits; NIL is stored as SLOT_MASK
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    int[] left;
+    int[] right;
+    private int[] parent; // Parent slot and color, see parentOf/isRed
+
+    int root;
+    private int size;
+    private int used;     // Slots handed out so far (high-water mark)
+    private int freeList; // Head of the recycled slot chain
+
+    SlotRedBlackTree(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Negative capacity: " + initialCapacity);
+        }
+        int capacity = Math.max(initialCapacity, 1);
+        this.left = new int[capacity];
+        this.right = new int[capacity];
+        this.parent = new int[capacity];
+        this.root = NIL;
+        this.freeList = NIL;
+    }
+
+    // Resizes the subclass's key array to newCapacity, keeping its contents
+    abstract void resizeKeys(int newCapacity);
+
+    // Rebuilds the key array so that new slot i holds the key of order[i]
+    abstract void reorderKeys(int[] order);
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Relays the nodes out in pre-order: the root goes to slot 0, every
+    // subtree occupies one contiguous run of slots and a left child sits in
+    // the slot right after its parent. Slots handed out in insertion order
+    // scatter a descent across the arrays; after compacting it moves forward
+    // through memory. Runs in O(n), trims the arrays to size and empties the
+    // free-list. Slot numbers obtained earlier are invalid afterwards.
+    public void compact() {
+        int capacity = Math.max(size, 1);
+        int[] order = new int[capacity]; // Old slot of each new slot
+        int[] newLeft = new int[capacity];
+        int[] newRight = new int[capacity];
+        int[] newParent = new int[capacity];
+
+        // Pending subtrees: old slot and the new slot of its parent. A path
+        // holds at most 2 log2(n + 1) nodes, so 64 entries always suffice.
+        int[] pendingSlots = new int[64];
+        int[] pendingParents = new int[64];
+        int pending = 0;
+        int next = 0;
+        if (root != NIL) {
+            pendingSlots[0] = root;
+            pendingParents[0] = NIL;
+            pending = 1;
+        }
+
+        while (pending > 0) {
+            pending--;
+            int oldSlot = pendingSlots[pending];
+            int newParentSlot = pendingParents[pending];
+            int slot = next++;
+
+            order[slot] = oldSlot;
+            newLeft[slot] = NIL;
+            newRight[slot] = NIL;
+            newParent[slot] = (parent[oldSlot] & RED_BIT) | (newParentSlot & SLOT_MASK);
+            if (newParentSlot != NIL) {
+                if (oldSlot == left[parentOf(oldSlot)]) {
+                    newLeft[newParentSlot] = slot;
+                } else {
+                    newRight[newParentSlot] = slot;
+                }
+            }
+
+            // Right pushed first so the left child is placed next
+            if (right[oldSlot] != NIL) {
+                pendingSlots[pending] = right[oldSlot];
+                pendingParents[pending++] = slot;
+            }
+            if (left[oldSlot] != NIL) {
+                pendingSlots[pending] = left[oldSlot];
+                pendingParents[pending++] = slot;
+            }
+        }
+
+        reorderKeys(order);
+        left = newLeft;
+        right = newRight;
+        parent = newParent;
+        root = size == 0 ? NIL : 0;
+        used = size;
+        freeList = NIL;
+    }
+
+    // Slot accessors, so callers can inspect a node returned by search()
+
+    public int root() {
+        return root;
+    }
+
+    public Color colorAt(int slot) {
+        return isRed(slot) ? Color.RED : Color.BLACK;
+    }
+
+    public int leftOf(int slot) {
+        return left[slot];
+    }
+
+    public int rightOf(int slot) {
+        return right[slot];
+    }
+
+    public int parentOf(int slot) {
+        int parentSlot = parent[slot] & SLOT_MASK;
+        return parentSlot == SLOT_MASK ? NIL : parentSlot;
+    }
+
+    // Links a freshly allocated slot below parentSlot (NIL for an empty
+    // tree) on the side the key descent chose, then rebalances
+    void attach(int newNode, int parentSlot, boolean goLeft) {
+        setParent(newNode, parentSlot);
+        size++;
+
+        if (parentSlot == NIL) {
+            root = newNode;
+            setRed(newNode, false);
+            return;
+        }
+
+        if (goLeft) {
+            left[parentSlot] = newNode;
+        } else {
+            right[parentSlot] = newNode;
+        }
+
+        fixBalance(newNode);
+    }
+
+    // Unlinks an occupied slot, rebalances and recycles the slot
+    void deleteSlot(int nodeToDelete) {
+        int nodeToFix;
+        int fixParent;
+        boolean removedRed = isRed(nodeToDelete);
+
+        // Case 1: Node has no left child
+        if (left[nodeToDelete] == NIL) {
+            nodeToFix = right[nodeToDelete];
+            fixParent = parentOf(nodeToDelete);
+            transplant(nodeToDelete, right[nodeToDelete]);
+        }
+
+        // Case 2: Node has no right child
+        else if (right[nodeToDelete] == NIL) {
+            nodeToFix = left[nodeToDelete];
+            fixParent = parentOf(nodeToDelete);
+            transplant(nodeToDelete, left[nodeToDelete]);
+        }
+
+        // Case 3: Node has both children
+        else {
+            // Find successor (minimum in right subtree)
+            int successor = findMinimum(right[nodeToDelete]);
+            removedRed = isRed(successor);
+            nodeToFix = right[successor];
+
+            if (parentOf(successor) == nodeToDelete) {
+                fixParent = successor;
+            } else {
+                fixParent = parentOf(successor);
+                transplant(successor, right[successor]);
+                right[successor] = right[nodeToDelete];
+                setParent(right[successor], successor);
+            }
+
+            transplant(nodeToDelete, successor);
+            left[successor] = left[nodeToDelete];
+            setParent(left[successor], successor);
+            setRed(successor, isRed(nodeToDelete));
+        }
+
+        release(nodeToDelete);
+        size--;
+
+        // Fix Red-Black Tree violations if a black node was deleted
+        if (!removedRed) {
+            deleteFixup(nodeToFix, fixParent);
+        }
+    }
+
+    private void rotateLeft(int x) {
+        int y = right[x];
+        right[x] = left[y];
+        if (left[y] != NIL) {
+            setParent(left[y], x);
+        }
+        setParent(y, parentOf(x));
+        if (parentOf(x) == NIL) {
+            root = y;
+        } else if (x == left[parentOf(x)]) {
+            left[parentOf(x)] = y;
+        } else {
+            right[parentOf(x)] = y;
+        }
+        left[y] = x;
+        setParent(x, y);
+    }
+
+    private void rotateRight(int y) {
+        int x = left[y];
+        left[y] = right[x];
+        if (right[x] != NIL) {
+            setParent(right[x], y);
+        }
+        setParent(x, parentOf(y));
+        if (parentOf(y) == NIL) {
+            root = x;
+        } else if (y == right[parentOf(y)]) {
+            right[parentOf(y)] = x;
+        } else {
+            left[parentOf(y)] = x;
+        }
+        right[x] = y;
+        setParent(y, x);
+    }
+
+    private void fixBalance(int node) {
+        while (node != root && isRed(parentOf(node))) {
+            int nodeParent = parentOf(node);
+            int grandparent = parentOf(nodeParent);
+
+            if (nodeParent == left[grandparent]) {
+                int uncle = right[grandparent];
+                if (isRed(uncle)) {
+                    // Case 1: Uncle is red
+                    setRed(nodeParent, false);
+                    setRed(uncle, false);
+                    setRed(grandparent, true);
+                    node = grandparent;
+                } else {
+                    if (node == right[nodeParent]) {
+                        // Case 2: Node is right child
+                        node = nodeParent;
+                        rotateLeft(node);
+                    }
+                    // Case 3: Node is left child
+                    setRed(parentOf(node), false);
+                    setRed(parentOf(parentOf(node)), true);
+                    rotateRight(parentOf(parentOf(node)));
+                }
+            } else {
+                // Mirror cases for when parent is right child
+                int uncle = left[grandparent];
+                if (isRed(uncle)) {
+                    // Case 1: Uncle is red
+                    setRed(nodeParent, false);
+                    setRed(uncle, false);
+                    setRed(grandparent, true);
+                    node = grandparent;
+                } else {
+                    if (node == left[nodeParent]) {
+                        // Case 2: Node is left child
+                        node = nodeParent;
+                        rotateRight(node);
+                    }
+                    // Case 3: Node is right child
+                    setRed(parentOf(node), false);
+                    setRed(parentOf(parentOf(node)), true);
+                    rotateLeft(parentOf(parentOf(node)));
+                }
+            }
+        }
+        setRed(root, false);
+    }
+
+    // Helper method to replace one subtree with another
+    private void transplant(int u, int v) {
+        if (parentOf(u) == NIL) {
+            root = v;
+        } else if (u == left[parentOf(u)]) {
+            left[parentOf(u)] = v;
+        } else {
+            right[parentOf(u)] = v;
+        }
+
+        if (v != NIL) {
+            setParent(v, parentOf(u));
+        }
+    }
+
+    // Helper method to find minimum node in a subtree
+    private int findMinimum(int node) {
+        while (left[node] != NIL) {
+            node = left[node];
+        }
+        return node;
+    }
+
+    // Method to fix Red-Black Tree violations after deletion
+    private void deleteFixup(int x, int xParent) {
+        while (x != root && !isRed(x)) {
+            if (x == left[xParent]) {
+                int sibling = right[xParent];
+
+                // Case 1: Sibling is red
+                if (isRed(sibling)) {
+                    setRed(sibling, false);
+                    setRed(xParent, true);
+                    rotateLeft(xParent);
+                    sibling = right[xParent];
+                }
+
+                // Case 2: Sibling's children are both black
+                if (!isRed(left[sibling]) && !isRed(right[sibling])) {
+                    setRed(sibling, true);
+                    x = xParent;
+                    xParent = parentOf(x);
+                } else {
+                    // Case 3: Sibling's right child is black
+                    if (!isRed(right[sibling])) {
+                        setRed(left[sibling], false);
+                        setRed(sibling, true);
+                        rotateRight(sibling);
+                        sibling = right[xParent];
+                    }
+
+                    // Case 4: Sibling's right child is red
+                    setRed(sibling, isRed(xParent));
+                    setRed(xParent, false);
+                    setRed(right[sibling], false);
+                    rotateLeft(xParent);
+                    x = root;
+                }
+            } else {
+                // Mirror cases for when x is a right child
+                int sibling = left[xParent];
+
+                if (isRed(sibling)) {
+                    setRed(sibling, false);
+                    setRed(xParent, true);
+                    rotateRight(xParent);
+                    sibling = left[xParent];
+                }
+
+                if (!isRed(right[sibling]) && !isRed(left[sibling])) {
+                    setRed(sibling, true);
+                    x = xParent;
+                    xParent = parentOf(x);
+                } else {
+                    if (!isRed(left[sibling])) {
+                        setRed(right[sibling], false);
+                        setRed(sibling, true);
+                        rotateLeft(sibling);
+                        sibling = left[xParent];
+                    }
+
+                    setRed(sibling, isRed(xParent));
+                    setRed(xParent, false);
+                    setRed(left[sibling], false);
+                    rotateRight(xParent);
+                    x = root;
+                }
+            }
+        }
+
+        if (x != NIL) {
+            setRed(x, false);
+        }
+    }
+
+    // NIL slots count as black leaves
+    private boolean isRed(int slot) {
+        return slot != NIL && parent[slot] < 0;
+    }
+
+    private void setRed(int slot, boolean isRed) {
+        parent[slot] = isRed ? parent[slot] | RED_BIT : parent[slot] & SLOT_MASK;
+    }
+
+    // Helper method to change a slot's parent, keeping its color
+    private void setParent(int slot, int parentSlot) {
+        parent[slot] = (parent[slot] & RED_BIT) | (parentSlot & SLOT_MASK);
+    }
+
+    // Helper method to take a slot from the free-list, or a fresh one;
+    // the caller stores the key
+    int allocate() {
+        int slot;
+        if (freeList != NIL) {
+            slot = freeList;
+            freeList = left[slot];
+        } else {
+            if (used == left.length) {
+                grow();
+            }
+            slot = used++;
+        }
+        left[slot] = NIL;
+        right[slot] = NIL;
+        parent[slot] = RED_BIT | SLOT_MASK; // Red, no parent
+        return slot;
+    }
+
+    // Helper method to push a deleted slot onto the free-list
+    private void release(int slot) {
+        left[slot] = freeList;
+        right[slot] = NIL;
+        parent[slot] = SLOT_MASK;
+        freeList = slot;
+    }
+
+    private void grow() {
+        int oldCapacity = left.length;
+        if (oldCapacity == MAX_CAPACITY) {
+            throw new IllegalStateException(getClass().getSimpleName() + " is full");
+        }
+        int newCapacity = (int) Math.min((long) oldCapacity + (oldCapacity >> 1) + 1, MAX_CAPACITY);
+        resizeKeys(newCapacity);
+        left = Arrays.copyOf(left, newCapacity);
+        right = Arrays.copyOf(right, newCapacity);
+        parent = Arrays.copyOf(parent, newCapacity);
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,316 @@
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Red-Black Tree that rebalances on the way down (Julienne Walker's top-down
+// insertion and deletion), so each operation is a single pass from the root.
+// Insert splits 4-nodes (black node with two red children) before stepping
+// past them; delete pushes a red node down along the search path so the
+// node finally removed is always red. Neither ever climbs back up, so nodes
+// need no parent link: one reference less per node, and rotations rewrite
+// two child links instead of up to six parent/child links.
+//
+// Delete copies the in-order predecessor's data into the node being removed
+// and unlinks the predecessor, so nodes are not stable handles the way
+// RedBlackTree's are; this class exposes no nodes.
+public class TopDownRedBlackTree <T extends Comparable<T>> implements Iterable<T> {
+    private static final int LEFT = 0;
+    private static final int RIGHT = 1;
+
+    // Sentinel above the root, so rotations at the root need no special case
+    private final TopDownNode<T> head = new TopDownNode<>(null, Color.BLACK);
+    private TopDownNode<T> root;
+    private int size;
+
+    public boolean insert(T data) {
+        if (root == null) {
+            root = new TopDownNode<>(data, Color.BLACK);
+            size++;
+            return true;
+        }
+
+        TopDownNode<T> great = head; // Great-grandparent of q, the subtree a rotation replaces
+        TopDownNode<T> grand = null;
+        TopDownNode<T> parent = null;
+        TopDownNode<T> q = root;
+        int dir = LEFT;
+        int last = LEFT;
+        boolean inserted = false;
+        head.right = root;
+
+        while (true) {
+            if (q == null) {
+                // Reached the bottom: attach a red leaf
+                q = new TopDownNode<>(data, Color.RED);
+                setChild(parent, dir, q);
+                inserted = true;
+            } else if (isRed(q.left) && isRed(q.right)) {
+                // Split a 4-node on the way down
+                q.color = Color.RED;
+                q.left.color = Color.BLACK;
+                q.right.color = Color.BLACK;
+            }
+
+            if (isRed(q) && isRed(parent)) {
+                // Red-red pair from the attach or the split: rotate at grand
+                int side = great.right == grand ? RIGHT : LEFT;
+                if (q == child(parent, last)) {
+                    setChild(great, side, rotate(grand, 1 - last));
+                } else {
+                    setChild(great, side, rotateDouble(grand, 1 - last));
+                }
+            }
+
+            if (inserted) {
+                break;
+            }
+            int comparison = data.compareTo(q.data);
+            if (comparison == 0) {
+                break; // Element already exists, duplicate not allowed
+            }
+
+            last = dir;
+            dir = comparison > 0 ? RIGHT : LEFT;
+            if (grand != null) {
+                great = grand;
+            }
+            grand = parent;
+            parent = q;
+            q = child(q, dir);
+        }
+
+        root = head.right;
+        root.color = Color.BLACK;
+        head.right = null;
+        if (inserted) {
+            size++;
+        }
+        return inserted;
+    }
+
+    public boolean delete(T data) {
+        if (root == null) {
+            return false;
+        }
+
+        TopDownNode<T> grand = null;
+        TopDownNode<T> parent = null;
+        TopDownNode<T> q = head;
+        TopDownNode<T> found = null;
+        int dir = RIGHT;
+        head.right = root;
+
+        while (child(q, dir) != null) {
+            int last = dir;
+            grand = parent;
+            parent = q;
+            q = child(q, dir);
+
+            // Once found, the walk goes one step left and then right to the
+            // predecessor, and every key there is smaller than data
+            int comparison = found == null ? data.compareTo(q.data) : 1;
+            if (comparison == 0) {
+                found = q;
+            }
+            dir = comparison > 0 ? RIGHT : LEFT;
+
+            // Push a red node down so q or its next child is red
+            if (!isRed(q) && !isRed(child(q, dir))) {
+                if (isRed(child(q, 1 - dir))) {
+                    // Case 1: red sibling of the next step, rotate it above q
+                    TopDownNode<T> top = rotate(q, dir);
+                    setChild(parent, last, top);
+                    parent = top;
+                } else {
+                    TopDownNode<T> sibling = child(parent, 1 - last);
+                    if (sibling != null) {
+                        if (!isRed(sibling.left) && !isRed(sibling.right)) {
+                            // Case 2: merge parent, q and sibling into a 4-node
+                            parent.color = Color.BLACK;
+                            sibling.color = Color.RED;
+                            q.color = Color.RED;
+                        } else {
+                            // Case 3: borrow from the sibling through a rotation at parent
+                            int side = grand.right == parent ? RIGHT : LEFT;
+                            if (isRed(child(sibling, last))) {
+                                setChild(grand, side, rotateDouble(parent, last));
+                            } else {
+                                setChild(grand, side, rotate(parent, last));
+                            }
+
+                            TopDownNode<T> top = child(grand, side);
+                            q.color = Color.RED;
+                            top.color = Color.RED;
+                            top.left.color = Color.BLACK;
+                            top.right.color = Color.BLACK;
+                        }
+                    }
+                }
+            }
+        }
+
+        if (found != null) {
+            // q is the predecessor (or found itself) and has at most one child
+            found.data = q.data;
+            setChild(parent, parent.right == q ? RIGHT : LEFT, q.left == null ? q.right : q.left);
+            size--;
+        }
+
+        root = head.right;
+        if (root != null) {
+            root.color = Color.BLACK;
+        }
+        head.right = null;
+        return found != null;
+    }
+
+    public boolean contains(T data) {
+        TopDownNode<T> current = root;
+
+        while (current != null) {
+            int comparison = data.compareTo(current.data);
+
+            if (comparison < 0) {
+                current = current.left;
+            } else if (comparison > 0) {
+                current = current.right;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    public int height() {
+        return height(root);
+    }
+
+    // Checks ordering, no red node with a red child, equal black height on
+    // every path and a black root
+    public boolean isValid() {
+        return !isRed(root) && blackHeight(root, null, null) >= 0;
+    }
+
+    // Ascending iteration; keeps a stack of at most one path
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private final Deque<TopDownNode<T>> path = new ArrayDeque<>();
+
+            {
+                pushLeftSpine(root);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !path.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                if (path.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                TopDownNode<T> node = path.pop();
+                pushLeftSpine(node.right);
+                return node.data;
+            }
+
+            private void pushLeftSpine(TopDownNode<T> node) {
+                while (node != null) {
+                    path.push(node);
+                    node = node.left;
+                }
+            }
+        };
+    }
+
+    // Rotates node away from dir and recolors for the top-down cases:
+    // the child that comes up turns black, node turns red
+    private static <T> TopDownNode<T> rotate(TopDownNode<T> node, int dir) {
+        TopDownNode<T> save = child(node, 1 - dir);
+
+        setChild(node, 1 - dir, child(save, dir));
+        setChild(save, dir, node);
+
+        node.color = Color.RED;
+        save.color = Color.BLACK;
+        return save;
+    }
+
+    private static <T> TopDownNode<T> rotateDouble(TopDownNode<T> node, int dir) {
+        setChild(node, 1 - dir, rotate(child(node, 1 - dir), 1 - dir));
+        return rotate(node, dir);
+    }
+
+    private static <T> TopDownNode<T> child(TopDownNode<T> node, int dir) {
+        return dir == LEFT ? node.left : node.right;
+    }
+
+    private static <T> void setChild(TopDownNode<T> node, int dir, TopDownNode<T> child) {
+        if (dir == LEFT) {
+            node.left = child;
+        } else {
+            node.right = child;
+        }
+    }
+
+    private static boolean isRed(TopDownNode<?> node) {
+        return node != null && node.color == Color.RED;
+    }
+
+    private static int height(TopDownNode<?> node) {
+        if (node == null) {
+            return 0;
+        }
+        return 1 + Math.max(height(node.left), height(node.right));
+    }
+
+    // Helper method returning the black height of node, or -1 if the subtree breaks a property
+    private int blackHeight(TopDownNode<T> node, T low, T high) {
+        if (node == null) {
+            return 0;
+        }
+        if ((low != null && node.data.compareTo(low) <= 0) || (high != null && node.data.compareTo(high) >= 0)) {
+            return -1;
+        }
+        if (isRed(node) && (isRed(node.left) || isRed(node.right))) {
+            return -1;
+        }
+
+        int left = blackHeight(node.left, low, node.data);
+        int right = blackHeight(node.right, node.data, high);
+        if (left < 0 || left != right) {
+            return -1;
+        }
+        return left + (isRed(node) ? 0 : 1);
+    }
+
+    // Node without a parent link
+    private static final class TopDownNode<T> {
+        T data;
+        Color color;
+        TopDownNode<T> left;
+        TopDownNode<T> right;
+
+        TopDownNode(T data, Color color) {
+            this.data = data;
+            this.color = color;
+        }
+    }
+
+}
\ No newline at end of file
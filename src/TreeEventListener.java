@@ -0,0 +1,11 @@
+// Receives a tree's mutations on the mutating thread, in the order they
+// happen: an INSERT comes right after the new node is linked and before the
+// rotations and recolors that rebalance it; a DELETE comes before the node
+// is unlinked.
+//
+// key is the inserted or deleted key, the key of the node a rotation
+// pivots on, the recolored node's key, or null for CLEAR. color is the new
+// color for RECOLOR and null otherwise.
+public interface TreeEventListener <T> {
+    void onEvent(TreeEventType type, T key, Color color);
+}
\ No newline at end of file
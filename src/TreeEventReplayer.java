@@ -0,0 +1,55 @@
+// Applies a recorded event stream to a replica tree.
+// Only INSERT, DELETE and CLEAR are replayed. Rotations and recolors are
+// counted but not applied: the replica runs the same deterministic
+// rebalancing on the same sequence of inserts and deletes, so it makes
+// exactly those rotations and recolors itself and ends up with the same
+// shape as the primary.
+public class TreeEventReplayer <T extends Comparable<T>> implements TreeEventListener<T> {
+    private final RedBlackTree<T> replica;
+    private long applied;
+    private long structural;
+
+    public TreeEventReplayer(RedBlackTree<T> replica) {
+        this.replica = replica;
+    }
+
+    @Override
+    public void onEvent(TreeEventType type, T key, Color color) {
+        switch (type) {
+            case INSERT:
+                replica.insert(key);
+                applied++;
+                break;
+            case DELETE:
+                replica.delete(key);
+                applied++;
+                break;
+            case CLEAR:
+                replica.clear();
+                applied++;
+                break;
+            default:
+                structural++; // Reproduced by the replica's own rebalancing
+        }
+    }
+
+    // Drains up to maxEvents from ring into the replica; returns how many were taken
+    public int replay(TreeEventRing<T> ring, int maxEvents) {
+        return ring.drain(this, maxEvents);
+    }
+
+    public RedBlackTree<T> replica() {
+        return replica;
+    }
+
+    // Inserts, deletes and clears applied to the replica
+    public long applied() {
+        return applied;
+    }
+
+    // Rotations and recolors seen
+    public long structural() {
+        return structural;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,111 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Bounded single-producer, single-consumer queue of tree events.
+// Attach it with tree.setListener(ring) on the thread that mutates the
+// tree; one other thread calls drain() to hand events on in batches.
+//
+// All slots are allocated up front as parallel arrays, so recording an
+// event allocates nothing; keys are stored by reference. Each side owns
+// one counter and publishes it with a lazySet once per event (producer)
+// or once per drained batch (consumer). When the ring is full the producer
+// waits for the consumer, which slows the tree down to the pace of its
+// slowest reader instead of dropping events.
+public final class TreeEventRing <T> implements TreeEventListener<T> {
+    private static final TreeEventType[] TYPES = TreeEventType.values();
+    private static final Color[] COLORS = {null, Color.RED, Color.BLACK};
+    private static final int SPINS_BEFORE_PARK = 100;
+    private static final long PARK_NANOS = 10_000;
+
+    private final byte[] types;
+    private final Object[] keys;
+    private final byte[] colors; // Index into COLORS
+    private final int mask;
+
+    private final AtomicLong head = new AtomicLong(); // Next sequence to write
+    private final AtomicLong tail = new AtomicLong(); // Next sequence to read
+
+    // Producer side only
+    private long cachedTail;
+    private long fullWaits;
+
+    public TreeEventRing(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity out of range: " + capacity);
+        }
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1; // Round up to a power of two so the sequence can be masked
+        }
+        this.types = new byte[size];
+        this.keys = new Object[size];
+        this.colors = new byte[size];
+        this.mask = size - 1;
+    }
+
+    // Producer: records one event, waiting while the ring is full
+    @Override
+    public void onEvent(TreeEventType type, T key, Color color) {
+        long sequence = head.get();
+        if (sequence - cachedTail > mask) {
+            cachedTail = tail.get();
+            if (sequence - cachedTail > mask) {
+                awaitSpace(sequence);
+            }
+        }
+
+        int slot = (int) sequence & mask;
+        types[slot] = (byte) type.ordinal();
+        keys[slot] = key;
+        colors[slot] = (byte) (color == null ? 0 : color == Color.RED ? 1 : 2);
+        head.lazySet(sequence + 1);
+    }
+
+    // Consumer: passes up to maxEvents pending events to handler in order and
+    // returns how many there were; frees their slots once the batch is done
+    @SuppressWarnings("unchecked")
+    public int drain(TreeEventListener<? super T> handler, int maxEvents) {
+        long first = tail.get();
+        int count = (int) Math.min(head.get() - first, maxEvents);
+
+        for (int i = 0; i < count; i++) {
+            int slot = (int) (first + i) & mask;
+            T key = (T) keys[slot];
+            keys[slot] = null; // Do not keep deleted keys reachable
+            handler.onEvent(TYPES[types[slot]], key, COLORS[colors[slot]]);
+        }
+        if (count > 0) {
+            tail.lazySet(first + count);
+        }
+        return count;
+    }
+
+    // Events recorded but not drained yet
+    public int size() {
+        return (int) (head.get() - tail.get());
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    // Times the producer found the ring full and had to wait (producer thread only)
+    public long fullWaits() {
+        return fullWaits;
+    }
+
+    // Helper method to wait for the consumer: spin briefly, then park in short naps
+    private void awaitSpace(long sequence) {
+        fullWaits++;
+        int spins = 0;
+        do {
+            if (++spins < SPINS_BEFORE_PARK) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+            cachedTail = tail.get();
+        } while (sequence - cachedTail > mask);
+    }
+
+}
\ No newline at end of file
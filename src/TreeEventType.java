@@ -0,0 +1,9 @@
+// Kinds of mutation a RedBlackTree reports to its TreeEventListener
+public enum TreeEventType {
+    INSERT,
+    DELETE,
+    ROTATE_LEFT,
+    ROTATE_RIGHT,
+    RECOLOR,
+    CLEAR
+}
\ No newline at end of file
@@ -0,0 +1,168 @@
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+// Process-wide counters for RedBlackTree's hot paths: rebalancing cases,
+// rotations, recolors and the comparisons made by each descent.
+//
+// Off unless the JVM runs with -Drbtree.metrics=true. Every recording method
+// starts with a check of the static final ENABLED flag; the JIT inlines these
+// small methods and folds the check, so with metrics off the tree pays nothing. When on, counters are
+// LongAdders, which stripe updates across cells instead of contending on
+// one shared word.
+public final class TreeMetrics implements TreeMetricsMXBean {
+    public static final boolean ENABLED = Boolean.getBoolean("rbtree.metrics");
+
+    private static final int DEPTH_BUCKETS = 64; // Depth of a tree with 2^32 keys is at most 64
+    private static final String OBJECT_NAME = "RedBlackTree:type=TreeMetrics";
+
+    private static final LongAdder[] INSERT_CASES = adders(3);
+    private static final LongAdder[] DELETE_CASES = adders(4);
+    private static final LongAdder LEFT_ROTATIONS = new LongAdder();
+    private static final LongAdder RIGHT_ROTATIONS = new LongAdder();
+    private static final LongAdder RECOLORS = new LongAdder();
+    private static final LongAdder DESCENTS = new LongAdder();
+    private static final LongAdder COMPARISONS = new LongAdder();
+    private static final LongAdder[] DEPTHS = adders(DEPTH_BUCKETS);
+
+    private static final TreeMetrics INSTANCE = new TreeMetrics();
+
+    private TreeMetrics() {
+    }
+
+    // Case numbers follow the "Case N" comments in fixBalance (1-3) and deleteFixup (1-4)
+    static void insertCase(int number) {
+        if (!ENABLED) {
+            return;
+        }
+        INSERT_CASES[number - 1].increment();
+    }
+
+    static void deleteCase(int number) {
+        if (!ENABLED) {
+            return;
+        }
+        DELETE_CASES[number - 1].increment();
+    }
+
+    static void rotation(boolean left) {
+        if (!ENABLED) {
+            return;
+        }
+        (left ? LEFT_ROTATIONS : RIGHT_ROTATIONS).increment();
+    }
+
+    static void recolor() {
+        if (!ENABLED) {
+            return;
+        }
+        RECOLORS.increment();
+    }
+
+    // One root-to-node descent (search or insert) that made this many key comparisons
+    static void descent(int comparisons) {
+        if (!ENABLED) {
+            return;
+        }
+        DESCENTS.increment();
+        COMPARISONS.add(comparisons);
+        DEPTHS[Math.min(comparisons, DEPTH_BUCKETS - 1)].increment();
+    }
+
+    // Point-in-time copy of every counter, keyed by name
+    public static Map<String, Long> snapshot() {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        for (int i = 0; i < INSERT_CASES.length; i++) {
+            counters.put("insert.case" + (i + 1), INSERT_CASES[i].sum());
+        }
+        for (int i = 0; i < DELETE_CASES.length; i++) {
+            counters.put("delete.case" + (i + 1), DELETE_CASES[i].sum());
+        }
+        counters.put("rotations.left", LEFT_ROTATIONS.sum());
+        counters.put("rotations.right", RIGHT_ROTATIONS.sum());
+        counters.put("recolors", RECOLORS.sum());
+        counters.put("descents", DESCENTS.sum());
+        counters.put("comparisons", COMPARISONS.sum());
+        return counters;
+    }
+
+    public static long[] depthHistogram() {
+        long[] histogram = new long[DEPTH_BUCKETS];
+        int used = 0;
+        for (int i = 0; i < DEPTH_BUCKETS; i++) {
+            histogram[i] = DEPTHS[i].sum();
+            if (histogram[i] != 0) {
+                used = i + 1;
+            }
+        }
+        return Arrays.copyOf(histogram, used); // Trailing empty buckets dropped
+    }
+
+    public static void resetAll() {
+        for (LongAdder adder : INSERT_CASES) {
+            adder.reset();
+        }
+        for (LongAdder adder : DELETE_CASES) {
+            adder.reset();
+        }
+        for (LongAdder adder : DEPTHS) {
+            adder.reset();
+        }
+        LEFT_ROTATIONS.reset();
+        RIGHT_ROTATIONS.reset();
+        RECOLORS.reset();
+        DESCENTS.reset();
+        COMPARISONS.reset();
+    }
+
+    // Publishes the counters on the platform MBean server; calling it again is harmless
+    public static synchronized void register() {
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register " + OBJECT_NAME, e);
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return ENABLED;
+    }
+
+    @Override
+    public Map<String, Long> getCounters() {
+        return snapshot();
+    }
+
+    @Override
+    public long[] getDepthHistogram() {
+        return depthHistogram();
+    }
+
+    @Override
+    public double getComparisonsPerDescent() {
+        long descents = DESCENTS.sum();
+        return descents == 0 ? 0 : (double) COMPARISONS.sum() / descents;
+    }
+
+    @Override
+    public void reset() {
+        resetAll();
+    }
+
+    private static LongAdder[] adders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+}
\ No newline at end of file
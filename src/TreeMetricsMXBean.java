@@ -0,0 +1,16 @@
+import java.util.Map;
+
+// JMX view of TreeMetrics, registered as "RedBlackTree:type=TreeMetrics"
+public interface TreeMetricsMXBean {
+    boolean isEnabled();
+
+    Map<String, Long> getCounters();
+
+    // Entry i counts descents that made i comparisons; the last entry also
+    // holds everything deeper
+    long[] getDepthHistogram();
+
+    double getComparisonsPerDescent();
+
+    void reset();
+}
\ No newline at end of file
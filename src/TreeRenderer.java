@@ -0,0 +1,222 @@
+import java.util.Arrays;
+
+// Draws a bounded viewport of a RedBlackTree as ASCII or SVG.
+// The viewport starts at a given key and goes down at most depthLimit
+// levels, and no deeper than the width allows: every level halves the room
+// per node, so drawing stops once a node would get less than a minimum
+// cell. Subtrees cut off by that bound are drawn as one badge with their
+// size and black-height. Only drawn nodes are visited (plus one left-spine
+// walk per badge for the black-height), so the cost depends on the
+// viewport, not on how large the tree is.
+//
+// ASCII legend: 12B black node, 7R red node, {65K/9} collapsed subtree
+// of about 65 thousand nodes with black-height 9.
+public final class TreeRenderer <T extends Comparable<T>> {
+    private static final int ASCII_NODE_CELL = 4;   // Columns per node
+    private static final int ASCII_BADGE_CELL = 10; // Columns per badge
+    private static final int SVG_NODE_CELL = 40;    // Pixels per node
+    private static final int SVG_BADGE_CELL = 80;   // Pixels per badge
+    private static final int SVG_LEVEL_HEIGHT = 56;
+    private static final int SVG_MARGIN = 24;
+    private static final int SVG_RADIUS = 16;
+    private static final int SVG_CHAR_WIDTH = 7;    // Rough width of a 11px monospace glyph
+
+    private final RedBlackTree<T> tree;
+
+    public TreeRenderer(RedBlackTree<T> tree) {
+        this.tree = tree;
+    }
+
+    // ASCII picture width columns wide of the subtree at rootKey (the whole
+    // tree if rootKey is null), or null if rootKey is not in the tree
+    public String ascii(T rootKey, int depthLimit, int width) {
+        checkViewport(depthLimit, width);
+        Node<T> top = viewportRoot(rootKey);
+        if (top == null) {
+            return rootKey == null ? "(empty tree)\n" : null;
+        }
+
+        int depth = visibleDepth(depthLimit, width, ASCII_NODE_CELL, ASCII_BADGE_CELL);
+        char[][] rows = new char[2 * depth + 3][width];
+        for (char[] row : rows) {
+            Arrays.fill(row, ' ');
+        }
+        drawAscii(rows, top, 0, depth, 0, width);
+
+        StringBuilder out = new StringBuilder();
+        out.append(header(top, depth)).append('\n');
+        for (char[] row : rows) {
+            int end = row.length;
+            while (end > 0 && row[end - 1] == ' ') {
+                end--;
+            }
+            if (end > 0) {
+                out.append(row, 0, end).append('\n');
+            }
+        }
+        return out.toString();
+    }
+
+    // SVG document width pixels wide of the same viewport, or null if
+    // rootKey is not in the tree
+    public String svg(T rootKey, int depthLimit, int width) {
+        checkViewport(depthLimit, width);
+        Node<T> top = viewportRoot(rootKey);
+        if (top == null && rootKey != null) {
+            return null;
+        }
+
+        int depth = top == null ? 0 : visibleDepth(depthLimit, width, SVG_NODE_CELL, SVG_BADGE_CELL);
+        int height = 2 * SVG_MARGIN + (depth + 1) * SVG_LEVEL_HEIGHT;
+        StringBuilder out = new StringBuilder();
+        out.append("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"").append(width)
+                .append("\" height=\"").append(height).append("\" font-family=\"monospace\" font-size=\"11\">\n");
+        if (top == null) {
+            text(out, width / 2.0, SVG_MARGIN, "#000", "(empty tree)");
+        } else {
+            out.append("<title>").append(escape(header(top, depth))).append("</title>\n");
+            drawSvg(out, top, 0, depth, 0, width);
+        }
+        return out.append("</svg>\n").toString();
+    }
+
+    // Helper method to draw node and its visible descendants into the slot [start, start + span)
+    private void drawAscii(char[][] rows, Node<T> node, int level, int depth, int start, int span) {
+        int center = start + span / 2;
+        put(rows[2 * level], label(node), center, start, span);
+
+        for (int side = 0; side < 2; side++) {
+            Node<T> child = side == 0 ? node.left : node.right;
+            if (child == null) {
+                continue;
+            }
+            int childStart = side == 0 ? start : start + span / 2;
+            int childSpan = side == 0 ? span / 2 : span - span / 2;
+            int childCenter = childStart + childSpan / 2;
+            put(rows[2 * level + 1], side == 0 ? "/" : "\\", (center + childCenter) / 2, start, span);
+
+            if (level < depth) {
+                drawAscii(rows, child, level + 1, depth, childStart, childSpan);
+            } else {
+                put(rows[2 * level + 2], badge(child), childCenter, childStart, childSpan);
+            }
+        }
+    }
+
+    private void drawSvg(StringBuilder out, Node<T> node, int level, int depth, double start, double span) {
+        double x = start + span / 2;
+        double y = SVG_MARGIN + level * SVG_LEVEL_HEIGHT;
+        int maxChars = Math.max(1, (int) (span / SVG_CHAR_WIDTH) - 1);
+
+        for (int side = 0; side < 2; side++) {
+            Node<T> child = side == 0 ? node.left : node.right;
+            if (child == null) {
+                continue;
+            }
+            double childStart = side == 0 ? start : start + span / 2;
+            double childX = childStart + span / 4;
+            double childY = y + SVG_LEVEL_HEIGHT;
+            out.append(String.format("<line x1=\"%.1f\" y1=\"%.1f\" x2=\"%.1f\" y2=\"%.1f\" stroke=\"#888\"/>%n",
+                    x, y, childX, childY));
+
+            if (level < depth) {
+                drawSvg(out, child, level + 1, depth, childStart, span / 2);
+            } else {
+                String badge = clip(badge(child), Math.max(1, (int) (span / 2 / SVG_CHAR_WIDTH) - 1));
+                double badgeWidth = badge.length() * SVG_CHAR_WIDTH + 8;
+                out.append(String.format("<rect x=\"%.1f\" y=\"%.1f\" width=\"%.1f\" height=\"20\" rx=\"6\" fill=\"#ddd\" stroke=\"#888\"/>%n",
+                        childX - badgeWidth / 2, childY - 10, badgeWidth));
+                text(out, childX, childY, "#000", badge);
+            }
+        }
+
+        String fill = node.color == Color.RED ? "#c0392b" : "#222";
+        out.append(String.format("<circle cx=\"%.1f\" cy=\"%.1f\" r=\"%d\" fill=\"%s\"/>%n", x, y, SVG_RADIUS, fill));
+        text(out, x, y, "#fff", clip(String.valueOf(node.data), maxChars));
+    }
+
+    private static void text(StringBuilder out, double x, double y, String fill, String text) {
+        out.append(String.format("<text x=\"%.1f\" y=\"%.1f\" fill=\"%s\" text-anchor=\"middle\" dominant-baseline=\"central\">",
+                x, y, fill)).append(escape(text)).append("</text>\n");
+    }
+
+    private Node<T> viewportRoot(T rootKey) {
+        return rootKey == null ? tree.root : tree.search(rootKey);
+    }
+
+    // Deepest node level whose nodes fit and still leave room for a badge row below
+    private static int visibleDepth(int depthLimit, int width, int nodeCell, int badgeCell) {
+        int depth = 0;
+        while (depth < depthLimit && depth < 30
+                && (width >> (depth + 1)) >= nodeCell && (width >> (depth + 2)) >= badgeCell) {
+            depth++;
+        }
+        return depth;
+    }
+
+    private String header(Node<T> top, int depth) {
+        return "Subtree at " + top.data + ": " + top.size + " nodes, black-height " + blackHeight(top)
+                + ", showing up to " + (depth + 1) + (depth == 0 ? " level" : " levels");
+    }
+
+    private static String label(Node<?> node) {
+        return node.data + (node.color == Color.RED ? "R" : "B");
+    }
+
+    private static String badge(Node<?> node) {
+        return "{" + compact(node.size) + "/" + blackHeight(node) + "}";
+    }
+
+    // Helper method to shorten a count to at most four characters, such as 512, 65K or 3M
+    private static String compact(int count) {
+        if (count < 1000) {
+            return Integer.toString(count);
+        }
+        if (count < 1000000) {
+            return count / 1000 + "K";
+        }
+        if (count < 1000000000) {
+            return count / 1000000 + "M";
+        }
+        return count / 1000000000 + "G";
+    }
+
+    // Black nodes from node down to a leaf, node included; any path gives the same count
+    private static int blackHeight(Node<?> node) {
+        int height = 0;
+        while (node != null) {
+            if (node.color == Color.BLACK) {
+                height++;
+            }
+            node = node.left;
+        }
+        return height;
+    }
+
+    // Helper method to write text centered on center, clipped to the slot [start, start + span)
+    private static void put(char[] row, String text, int center, int start, int span) {
+        String clipped = clip(text, Math.max(1, span - 1));
+        int from = Math.max(start, center - clipped.length() / 2);
+        for (int i = 0; i < clipped.length() && from + i < row.length; i++) {
+            row[from + i] = clipped.charAt(i);
+        }
+    }
+
+    private static String clip(String text, int maxLength) {
+        if (text.length() <= maxLength) {
+            return text;
+        }
+        return maxLength == 1 ? "~" : text.substring(0, maxLength - 1) + "~";
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    private static void checkViewport(int depthLimit, int width) {
+        if (depthLimit < 0 || width < 1) {
+            throw new IllegalArgumentException("Invalid viewport: depth " + depthLimit + ", width " + width);
+        }
+    }
+
+}
\ No newline at end of file
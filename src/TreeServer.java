@@ -0,0 +1,258 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Serves one RedBlackTree<Integer> to other processes over TCP.
+//
+// Protocol, big-endian, fixed size frames:
+//   request  [op:1][key:4]     op 1 = insert, 2 = delete, 3 = search, 4 = size
+//   response [status:1][value:4]
+// status is 1 for true, 0 for false and 2 for an unknown op; value echoes
+// the key, or holds the tree size for op 4. Clients may pipeline: send any
+// number of requests without waiting, responses come back in request order.
+//
+// Each connection gets its own thread, a virtual thread when the JVM has
+// them. A connection turns everything it has read so far into one batch.
+// Batches from all connections meet in a queue, and whichever connection
+// takes the tree lock applies every batch queued ahead of its own
+// (flat combining), so one lock hold serves many clients and waiting
+// connections usually find their work already done.
+public class TreeServer implements Closeable {
+    static final int DEFAULT_PORT = 7878;
+
+    static final byte OP_INSERT = 1;
+    static final byte OP_DELETE = 2;
+    static final byte OP_SEARCH = 3;
+    static final byte OP_SIZE = 4;
+    static final byte STATUS_FALSE = 0;
+    static final byte STATUS_TRUE = 1;
+    static final byte STATUS_UNKNOWN_OP = 2;
+    static final int FRAME_BYTES = 5; // Requests and responses alike
+
+    private static final int MAX_BATCH = 1024; // Requests read per socket read
+
+    private final RedBlackTree<Integer> tree = new RedBlackTree<>();
+    private final ReentrantLock treeLock = new ReentrantLock();
+    private final ConcurrentLinkedQueue<Batch> pending = new ConcurrentLinkedQueue<>();
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections;
+    private final Thread acceptor;
+
+    // Guarded by treeLock
+    private long requests;
+    private long batches;
+    private long lockHolds;
+
+    public TreeServer(int port) throws IOException {
+        this.serverSocket = new ServerSocket();
+        this.serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        this.connections = newConnectionExecutor();
+        this.acceptor = new Thread(this::acceptLoop, "tree-server-acceptor");
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        final TreeServer server = new TreeServer(port);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            System.err.println(server.statistics());
+        }));
+        server.start();
+        System.err.println("Serving a RedBlackTree<Integer> on " + server.address() + " (Ctrl+C to stop)");
+    }
+
+    public void start() {
+        acceptor.start();
+    }
+
+    public InetSocketAddress address() {
+        return (InetSocketAddress) serverSocket.getLocalSocketAddress();
+    }
+
+    // Requests served and how well they were combined under the lock
+    public String statistics() {
+        treeLock.lock();
+        try {
+            return String.format("%d requests in %d batches, %d lock holds (%.1f requests per hold)",
+                    requests, batches, lockHolds, lockHolds == 0 ? 0.0 : (double) requests / lockHolds);
+        } finally {
+            treeLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            serverSocket.close(); // Unblocks accept()
+        } catch (IOException e) {
+            // Nothing left to release
+        }
+        connections.shutdownNow();
+        try {
+            acceptor.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Virtual threads are looked up reflectively so the class still runs on
+    // JVMs that predate them; those get a cached pool of platform threads
+    private static ExecutorService newConnectionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "tree-server-connection");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                final Socket socket = serverSocket.accept();
+                connections.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.err.println("Accept failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Helper method to answer one connection until the client closes it
+    private void serve(Socket socket) {
+        byte[] input = new byte[MAX_BATCH * FRAME_BYTES];
+        byte[] output = new byte[MAX_BATCH * FRAME_BYTES];
+        Batch batch = new Batch();
+        int filled = 0;
+
+        try (Socket connection = socket) {
+            connection.setTcpNoDelay(true);
+            InputStream in = connection.getInputStream();
+            OutputStream out = connection.getOutputStream();
+
+            int read;
+            while ((read = in.read(input, filled, input.length - filled)) > 0) {
+                filled += read;
+                int count = filled / FRAME_BYTES;
+                if (count == 0) {
+                    continue; // Only part of a frame so far
+                }
+
+                batch.decode(input, count);
+                apply(batch);
+                batch.encode(output);
+                out.write(output, 0, count * FRAME_BYTES);
+
+                // Keep a trailing partial frame for the next read
+                int used = count * FRAME_BYTES;
+                System.arraycopy(input, used, input, 0, filled - used);
+                filled -= used;
+            }
+        } catch (SocketException e) {
+            // Client went away mid-request or the server is closing
+        } catch (IOException e) {
+            System.err.println("Connection failed: " + e.getMessage());
+        }
+    }
+
+    // Queues batch and applies it, along with any batches queued ahead of it,
+    // under a single lock hold; returns once batch has been applied
+    private void apply(Batch batch) {
+        batch.done = false;
+        pending.add(batch);
+
+        treeLock.lock();
+        try {
+            if (batch.done) {
+                return; // The previous lock holder got to it
+            }
+            lockHolds++;
+            Batch next;
+            do {
+                next = pending.poll(); // FIFO, so batch itself comes up eventually
+                next.applyTo(this);
+                next.done = true;
+                batches++;
+            } while (next != batch);
+        } finally {
+            treeLock.unlock();
+        }
+    }
+
+    // Helper method to run one request; caller holds treeLock
+    private byte execute(byte op, int key) {
+        requests++;
+        switch (op) {
+            case OP_INSERT:
+                return tree.insert(key) ? STATUS_TRUE : STATUS_FALSE;
+            case OP_DELETE:
+                return tree.delete(key) ? STATUS_TRUE : STATUS_FALSE;
+            case OP_SEARCH:
+                return tree.search(key) != null ? STATUS_TRUE : STATUS_FALSE;
+            case OP_SIZE:
+                return STATUS_TRUE;
+            default:
+                return STATUS_UNKNOWN_OP;
+        }
+    }
+
+    // Requests read from one connection in one go, reused across reads
+    private static final class Batch {
+        final byte[] ops = new byte[MAX_BATCH];
+        final int[] keys = new int[MAX_BATCH];
+        final byte[] statuses = new byte[MAX_BATCH];
+        final int[] values = new int[MAX_BATCH];
+        int count;
+        boolean done; // Reset by the owner before queuing, otherwise only touched under treeLock
+
+        void decode(byte[] input, int count) {
+            this.count = count;
+            for (int i = 0, offset = 0; i < count; i++, offset += FRAME_BYTES) {
+                ops[i] = input[offset];
+                keys[i] = readInt(input, offset + 1);
+            }
+        }
+
+        void applyTo(TreeServer server) {
+            for (int i = 0; i < count; i++) {
+                statuses[i] = server.execute(ops[i], keys[i]);
+                values[i] = ops[i] == OP_SIZE ? server.tree.size() : keys[i];
+            }
+        }
+
+        void encode(byte[] output) {
+            for (int i = 0, offset = 0; i < count; i++, offset += FRAME_BYTES) {
+                output[offset] = statuses[i];
+                writeInt(output, offset + 1, values[i]);
+            }
+        }
+    }
+
+    static int readInt(byte[] bytes, int offset) {
+        return (bytes[offset] << 24) | ((bytes[offset + 1] & 0xFF) << 16)
+                | ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+    }
+
+    static void writeInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+// Mutable front end over PersistentRedBlackTree.
+// Writers swap in a new version under a lock; snapshot() hands out the
+// current version in O(1). A snapshot never changes, so reporting threads
+// can walk it for as long as they like while writers carry on.
+public class VersionedRedBlackTree <T extends Comparable<T>> {
+    private volatile PersistentRedBlackTree<T> current = PersistentRedBlackTree.empty();
+
+    public synchronized boolean insert(T data) {
+        PersistentRedBlackTree<T> next = current.insert(data);
+        if (next == current) {
+            return false; // Element already exists, duplicate not allowed
+        }
+        current = next;
+        return true;
+    }
+
+    public synchronized boolean delete(T data) {
+        PersistentRedBlackTree<T> next = current.delete(data);
+        if (next == current) {
+            return false; // Node not found
+        }
+        current = next;
+        return true;
+    }
+
+    public boolean contains(T data) {
+        return current.contains(data);
+    }
+
+    public int size() {
+        return current.size();
+    }
+
+    // Point-in-time view sharing structure with the live tree
+    public PersistentRedBlackTree<T> snapshot() {
+        return current;
+    }
+
+}
\ No newline at end of file
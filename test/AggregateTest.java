@@ -0,0 +1,51 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.function.ToLongFunction;
+
+import org.junit.Test;
+
+public class AggregateTest {
+    private static final ToLongFunction<Integer> VALUE = key -> key;
+
+    private static RedBlackTree<Integer> tree(Aggregate<Integer, Long> aggregate, int from, int to) {
+        RedBlackTree<Integer> tree = new RedBlackTree<>(aggregate);
+        for (int key = from; key < to; key++) {
+            tree.insert(key);
+        }
+        return tree;
+    }
+
+    @Test
+    public void countIsShared() {
+        assertSame(Aggregate.<Integer>count(), Aggregate.<String>count());
+    }
+
+    @Test
+    public void treesFromSeparateCountCallsCanBeCombined() {
+        RedBlackTree<Integer> union = RedBlackTree.union(tree(Aggregate.count(), 0, 100),
+                tree(Aggregate.count(), 50, 150));
+        assertEquals(150, union.size());
+        assertEquals(Long.valueOf(150), union.aggregate(0, 149));
+
+        RedBlackTree<Integer> joined = RedBlackTree.join(tree(Aggregate.count(), 0, 10), 10,
+                tree(Aggregate.count(), 11, 20));
+        assertEquals(Long.valueOf(20), joined.aggregate(0, 19));
+    }
+
+    @Test
+    public void sumsOverTheSameFunctionAreEqual() {
+        assertEquals(Aggregate.sum(VALUE), Aggregate.sum(VALUE));
+        assertNotEquals(Aggregate.sum(VALUE), Aggregate.max(VALUE));
+
+        RedBlackTree<Integer> union = RedBlackTree.union(tree(Aggregate.sum(VALUE), 0, 10),
+                tree(Aggregate.sum(VALUE), 10, 20));
+        assertEquals(Long.valueOf(190), union.aggregate(0, 19));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void differentAggregatesAreRejected() {
+        RedBlackTree.union(tree(Aggregate.sum(VALUE), 0, 10), tree(Aggregate.count(), 10, 20));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,107 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+public class ConcurrentRedBlackTreeTest {
+    private static final int KEYS = 4_096;
+    private static final int WRITERS = 4;
+    private static final int READERS = 4;
+    private static final long RUN_MILLIS = 2_000;
+
+    @Test
+    public void pointOperations() {
+        ConcurrentRedBlackTree<Integer> tree = new ConcurrentRedBlackTree<>(4);
+        assertTrue(tree.isEmpty());
+        assertTrue(tree.insert(5));
+        assertFalse(tree.insert(5));
+        assertTrue(tree.contains(5));
+        assertFalse(tree.contains(6));
+        assertTrue(tree.delete(5));
+        assertFalse(tree.delete(5));
+        assertTrue(tree.isEmpty());
+        assertTrue(tree.isValid());
+    }
+
+    // Writers insert and delete the odd keys while readers look up every key
+    // without a lock. The even keys are inserted up front and never touched,
+    // so a reader must always find them; a torn optimistic read that slipped
+    // past validation would show up as a miss.
+    @Test
+    public void writersAndOptimisticReadersOnSharedKeys() throws Exception {
+        final ConcurrentRedBlackTree<Integer> tree = new ConcurrentRedBlackTree<>(8);
+        for (int key = 0; key < KEYS; key += 2) {
+            tree.insert(key);
+        }
+
+        final AtomicBoolean stop = new AtomicBoolean();
+        final AtomicLong missedStableKeys = new AtomicLong();
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS + READERS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int w = 0; w < WRITERS; w++) {
+            final long seed = w;
+            futures.add(pool.submit(() -> {
+                Random random = new Random(seed);
+                start.await();
+                while (!stop.get()) {
+                    int key = random.nextInt(KEYS) | 1;
+                    if (random.nextBoolean()) {
+                        tree.insert(key);
+                    } else {
+                        tree.delete(key);
+                    }
+                }
+                return null;
+            }));
+        }
+        for (int r = 0; r < READERS; r++) {
+            final long seed = 100 + r;
+            futures.add(pool.submit(() -> {
+                Random random = new Random(seed);
+                start.await();
+                while (!stop.get()) {
+                    int key = random.nextInt(KEYS);
+                    boolean found = tree.contains(key);
+                    if ((key & 1) == 0 && !found) {
+                        missedStableKeys.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        Thread.sleep(RUN_MILLIS);
+        stop.set(true);
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+        for (Future<?> future : futures) {
+            future.get(); // Rethrows anything a worker threw
+        }
+
+        assertEquals(0, missedStableKeys.get());
+        assertTrue(tree.isValid());
+
+        int present = 0;
+        for (int key = 0; key < KEYS; key++) {
+            if (tree.contains(key)) {
+                present++;
+            }
+        }
+        assertEquals(present, tree.size());
+    }
+}
\ No newline at end of file
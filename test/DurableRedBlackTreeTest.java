@@ -0,0 +1,132 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DurableRedBlackTreeTest {
+    private static final int RECORD_BYTES = 5;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void replaysLogAfterReopen() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        try (DurableRedBlackTree tree = new DurableRedBlackTree(directory, 16, 0, 0)) {
+            for (int i = 0; i < 100; i++) {
+                assertTrue(tree.insert(i));
+            }
+            for (int i = 0; i < 100; i += 3) {
+                assertTrue(tree.delete(i));
+            }
+            assertFalse(tree.insert(1));
+            assertFalse(tree.delete(0));
+        }
+
+        try (DurableRedBlackTree tree = new DurableRedBlackTree(directory, 16, 0, 0)) {
+            assertEquals(66, tree.size());
+            for (int i = 0; i < 100; i++) {
+                assertEquals(i % 3 != 0, tree.contains(i));
+            }
+        }
+    }
+
+    // A crash mid-write leaves part of a record, or bytes that never were one
+    @Test
+    public void truncatesTornTail() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        try (DurableRedBlackTree tree = new DurableRedBlackTree(directory, 1, 0, 0)) {
+            tree.insert(7);
+            tree.insert(8);
+        }
+        Path wal = directory.resolve("tree.wal");
+        Files.write(wal, new byte[] {1, 0, 0}, StandardOpenOption.APPEND);
+
+        try (DurableRedBlackTree tree = new DurableRedBlackTree(directory, 1, 0, 0)) {
+            assertEquals(2, tree.size());
+            assertEquals(2 * RECORD_BYTES, Files.size(wal));
+            tree.insert(9);
+        }
+        Files.write(wal, new byte[] {42, 0, 0, 0, 1}, StandardOpenOption.APPEND);
+
+        try (DurableRedBlackTree tree = new DurableRedBlackTree(directory, 1, 0, 0)) {
+            assertEquals(3, tree.size());
+            assertTrue(tree.contains(9));
+            assertEquals(3 * RECORD_BYTES, Files.size(wal));
+        }
+    }
+
+    @Test
+    public void recoversFromCheckpointPlusLogTail() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        Path wal = directory.resolve("tree.wal");
+        try (DurableRedBlackTree tree = new DurableRedBlackTree(directory, 8, 0, 0)) {
+            for (int i = 0; i < 1000; i++) {
+                tree.insert(i);
+            }
+            tree.checkpoint();
+            assertEquals(0, Files.size(wal));
+
+            tree.delete(500);
+            tree.insert(1000);
+        }
+        assertEquals(2 * RECORD_BYTES, Files.size(wal));
+
+        try (DurableRedBlackTree tree = new DurableRedBlackTree(directory, 8, 0, 0)) {
+            assertEquals(1000, tree.size());
+            assertFalse(tree.contains(500));
+            assertTrue(tree.contains(999));
+            assertTrue(tree.contains(1000));
+        }
+    }
+
+    // The last records of an idle writer reach the file without another append
+    @Test
+    public void flusherSyncsIdleBatch() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        Path wal = directory.resolve("tree.wal");
+        try (DurableRedBlackTree tree = new DurableRedBlackTree(directory, 1024, 20, 0)) {
+            tree.insert(1);
+            tree.insert(2);
+            long deadline = System.nanoTime() + 5_000_000_000L;
+            while (Files.size(wal) < 2 * RECORD_BYTES && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(2 * RECORD_BYTES, Files.size(wal));
+        }
+    }
+
+    // A change whose record cannot be written is not applied either
+    @Test
+    public void failedLogWriteLeavesTreeUnchanged() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        DurableRedBlackTree tree = new DurableRedBlackTree(directory, 1, 0, 0);
+        tree.insert(1);
+        tree.close();
+
+        try {
+            tree.insert(2);
+            fail("Expected IOException");
+        } catch (IOException e) {
+            // Log channel is closed
+        }
+        try {
+            tree.delete(1);
+            fail("Expected IOException");
+        } catch (IOException e) {
+            // Log channel is closed
+        }
+        assertFalse(tree.contains(2));
+        assertTrue(tree.contains(1));
+        assertEquals(1, tree.size());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,56 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class ExpiringCacheTest {
+    private long now;
+
+    private ExpiringCache<String, String> cache(long maximumWeight) {
+        return new ExpiringCache<>(maximumWeight, (key, value) -> 1, () -> now);
+    }
+
+    @Test
+    public void expiresAfterTimeToLive() {
+        ExpiringCache<String, String> cache = cache(10);
+        cache.put("a", "1", 10, TimeUnit.NANOSECONDS);
+        now = 9;
+        assertEquals("1", cache.get("a"));
+        now = 10;
+        assertNull(cache.get("a"));
+        assertEquals(1, cache.expirations());
+        assertEquals(0, cache.size());
+    }
+
+    // The new entry has the earliest deadline but must not evict itself
+    @Test
+    public void putOverCapacityKeepsNewEntryWithShortestTimeToLive() {
+        ExpiringCache<String, String> cache = cache(3);
+        cache.put("a", "1", 10, TimeUnit.NANOSECONDS);
+        cache.put("b", "2", 20, TimeUnit.NANOSECONDS);
+        cache.put("c", "3", 30, TimeUnit.NANOSECONDS);
+
+        cache.put("d", "4", 5, TimeUnit.NANOSECONDS);
+
+        assertEquals("4", cache.get("d"));
+        assertNull(cache.get("a"));
+        assertEquals("2", cache.get("b"));
+        assertEquals("3", cache.get("c"));
+        assertEquals(1, cache.evictions());
+        assertEquals(3, cache.weight());
+    }
+
+    @Test
+    public void evictsSoonestToExpireFirst() {
+        ExpiringCache<String, String> cache = cache(2);
+        cache.put("a", "1", 30, TimeUnit.NANOSECONDS);
+        cache.put("b", "2", 10, TimeUnit.NANOSECONDS);
+        cache.put("c", "3", 20, TimeUnit.NANOSECONDS);
+
+        assertNull(cache.get("b"));
+        assertEquals("1", cache.get("a"));
+        assertEquals("3", cache.get("c"));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,117 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ConcurrentModificationException;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+public class RedBlackTreeMapTest {
+
+    // Nothing is linked in while the mapping function runs
+    @Test
+    public void computeIfAbsentLeavesMapUntouchedDuringFunction() {
+        RedBlackTreeMap<Integer, String> map = new RedBlackTreeMap<>();
+        map.put(1, "one");
+
+        String value = map.computeIfAbsent(2, key -> {
+            assertFalse(map.containsKey(2));
+            assertEquals(1, map.size());
+            return "two";
+        });
+
+        assertEquals("two", value);
+        assertEquals("two", map.get(2));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    public void nullResultRecordsNoMapping() {
+        RedBlackTreeMap<Integer, String> map = new RedBlackTreeMap<>();
+        assertNull(map.computeIfAbsent(1, key -> null));
+        assertNull(map.compute(2, (key, old) -> null));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void throwingFunctionRecordsNoMapping() {
+        RedBlackTreeMap<Integer, String> map = new RedBlackTreeMap<>();
+        try {
+            map.compute(1, (key, old) -> {
+                throw new IllegalStateException("boom");
+            });
+            fail();
+        } catch (IllegalStateException expected) {
+            // Propagated unchanged
+        }
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void functionThatClearsTheMapIsDetected() {
+        RedBlackTreeMap<Integer, String> map = new RedBlackTreeMap<>();
+        map.put(1, "one");
+        try {
+            map.computeIfAbsent(2, key -> {
+                map.clear();
+                return "two";
+            });
+            fail();
+        } catch (ConcurrentModificationException expected) {
+            // The new value must not go into a detached node silently
+        }
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void functionThatInsertsIsDetected() {
+        RedBlackTreeMap<Integer, String> map = new RedBlackTreeMap<>();
+        map.put(1, "one");
+        try {
+            map.merge(1, "uno", (old, value) -> {
+                map.put(3, "three");
+                return old + value;
+            });
+            fail();
+        } catch (ConcurrentModificationException expected) {
+            // Same as TreeMap
+        }
+        assertEquals("one", map.get(1));
+    }
+
+    @Test
+    public void computeFamilyMatchesTreeMap() {
+        RedBlackTreeMap<Integer, Integer> map = new RedBlackTreeMap<>();
+        TreeMap<Integer, Integer> reference = new TreeMap<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(500);
+            int choice = random.nextInt(4);
+            int delta = random.nextInt(5) - 1; // -1 maps to null, removing the key
+            switch (choice) {
+                case 0:
+                    assertEquals(reference.computeIfAbsent(key, k -> delta < 0 ? null : delta),
+                            map.computeIfAbsent(key, k -> delta < 0 ? null : delta));
+                    break;
+                case 1:
+                    assertEquals(reference.computeIfPresent(key, (k, old) -> delta < 0 ? null : old + delta),
+                            map.computeIfPresent(key, (k, old) -> delta < 0 ? null : old + delta));
+                    break;
+                case 2:
+                    assertEquals(reference.compute(key, (k, old) -> delta < 0 ? null : delta),
+                            map.compute(key, (k, old) -> delta < 0 ? null : delta));
+                    break;
+                default:
+                    assertEquals(reference.merge(key, 1, (old, value) -> delta < 0 ? null : old + value),
+                            map.merge(key, 1, (old, value) -> delta < 0 ? null : old + value));
+            }
+        }
+        assertEquals(reference, map);
+        assertEquals(reference.keySet().toString(), map.keySet().toString());
+    }
+}
\ No newline at end of file